@@ -3,6 +3,7 @@ package com.moxakk.analyzer.auth.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
@@ -15,8 +16,9 @@ public class SupabaseConfig {
     private String supabaseKey;
 
     @Bean
-    public WebClient supabaseWebClient() {
+    public WebClient supabaseWebClient(ReactorClientHttpConnector outboundHttpConnector) {
         return WebClient.builder()
+            .clientConnector(outboundHttpConnector)
             .baseUrl(supabaseUrl)
             .defaultHeader("apikey", supabaseKey)
             .defaultHeader("Content-Type", "application/json")
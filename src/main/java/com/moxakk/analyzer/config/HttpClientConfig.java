@@ -0,0 +1,201 @@
+package com.moxakk.analyzer.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Shared outbound HTTP transport.
+ * Blocking clients (RestTemplate) go through one pooled Apache HttpClient with keep-alive, and
+ * reactive clients (WebClient) go through one Reactor Netty connection provider that negotiates
+ * HTTP/2 where the server supports it. Both apply the per-host timeout profiles from
+ * {@link OutboundHttpProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class HttpClientConfig {
+
+    /**
+     * Creates the pooled connection manager used by all blocking HTTP clients.
+     *
+     * @param properties Outbound HTTP settings
+     * @param meterRegistry The registry to publish pool metrics to
+     * @return A configured connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getDefaults().getMaxConnections())
+                .setConnectionConfigResolver(route -> {
+                    OutboundHttpProperties.HostProfile profile = properties.profileFor(route.getTargetHost().getHostName());
+                    return ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(profile.getConnectTimeout()))
+                            .setSocketTimeout(Timeout.of(profile.getResponseTimeout()))
+                            .setTimeToLive(TimeValue.of(properties.getConnectionTtl()))
+                            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                            .build();
+                })
+                .build();
+
+        properties.getHosts().forEach((host, ignored) -> {
+            int maxConnections = properties.profileFor(host).getMaxConnections();
+            connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost("https", host, 443)), maxConnections);
+        });
+
+        registerPoolGauge(meterRegistry, "outbound.http.pool.leased", "Connections currently in use", connectionManager, PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "outbound.http.pool.available", "Idle keep-alive connections", connectionManager, PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, "outbound.http.pool.pending", "Requests waiting for a connection", connectionManager, PoolStats::getPending);
+        registerPoolGauge(meterRegistry, "outbound.http.pool.max", "Maximum number of connections", connectionManager, PoolStats::getMax);
+
+        return connectionManager;
+    }
+
+    /**
+     * Creates the pooled HTTP client used by all blocking HTTP clients.
+     *
+     * @param connectionManager The shared connection manager
+     * @param properties Outbound HTTP settings
+     * @return A configured HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager connectionManager, OutboundHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .build();
+    }
+
+    /**
+     * Creates the request factory for RestTemplate beans.
+     * Each request gets the response and connection-request timeouts of its destination host.
+     *
+     * @param httpClient The shared HTTP client
+     * @param properties Outbound HTTP settings
+     * @return A request factory backed by the pooled client
+     */
+    @Bean
+    public ClientHttpRequestFactory outboundRequestFactory(CloseableHttpClient httpClient, OutboundHttpProperties properties) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                OutboundHttpProperties.HostProfile profile = properties.profileFor(uri.getHost());
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getPendingAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(profile.getResponseTimeout()))
+                        .build());
+                return context;
+            }
+        };
+    }
+
+    /**
+     * Creates the connection provider shared by all WebClient instances.
+     * Pool metrics are published under reactor.netty.connection.provider.*.
+     *
+     * @param properties Outbound HTTP settings
+     * @return A configured connection provider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider outboundConnectionProvider(OutboundHttpProperties properties) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("outbound")
+                .maxConnections(properties.getDefaults().getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .maxLifeTime(properties.getConnectionTtl())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true);
+
+        properties.getHosts().forEach((host, ignored) -> {
+            int maxConnections = properties.profileFor(host).getMaxConnections();
+            builder.forRemoteHost(InetSocketAddress.createUnresolved(host, 443), spec -> spec.maxConnections(maxConnections));
+        });
+
+        return builder.build();
+    }
+
+    /**
+     * Creates the connector for WebClient instances, negotiating HTTP/2 over TLS and falling back to HTTP/1.1.
+     * The connect timeout is a channel option fixed before the request is known, so each host with
+     * a profile gets its own client with that host's connect timeout; all of them share the pool.
+     *
+     * @param connectionProvider The shared connection provider
+     * @param properties Outbound HTTP settings
+     * @return A connector backed by the shared pool
+     */
+    @Bean
+    public ReactorClientHttpConnector outboundHttpConnector(ConnectionProvider connectionProvider, OutboundHttpProperties properties) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .doOnRequest((request, connection) -> request.responseTimeout(
+                        properties.profileFor(URI.create(request.resourceUrl()).getHost()).getResponseTimeout()));
+
+        Map<String, ReactorClientHttpConnector> hostConnectors = new HashMap<>();
+        properties.getHosts().forEach((host, ignored) -> hostConnectors.put(host,
+                new ReactorClientHttpConnector(withConnectTimeout(httpClient, properties.profileFor(host)))));
+
+        return new ReactorClientHttpConnector(withConnectTimeout(httpClient, properties.getDefaults())) {
+            @Override
+            public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                                    Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+                ReactorClientHttpConnector hostConnector = uri.getHost() != null
+                        ? hostConnectors.get(uri.getHost().toLowerCase(Locale.ROOT)) : null;
+                if (hostConnector != null) {
+                    return hostConnector.connect(method, uri, requestCallback);
+                }
+                return super.connect(method, uri, requestCallback);
+            }
+        };
+    }
+
+    private static HttpClient withConnectTimeout(HttpClient httpClient, OutboundHttpProperties.HostProfile profile) {
+        return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) profile.getConnectTimeout().toMillis());
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, String name, String description,
+                                          PoolingHttpClientConnectionManager connectionManager, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(name, connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("client", "rest")
+                .description(description)
+                .register(meterRegistry);
+    }
+}
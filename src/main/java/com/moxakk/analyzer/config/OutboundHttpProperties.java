@@ -0,0 +1,134 @@
+package com.moxakk.analyzer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings for the shared outbound HTTP connection pools.
+ * Timeouts and connection limits can be overridden per destination host; hosts without an entry
+ * use the default profile.
+ */
+@ConfigurationProperties(prefix = "outbound.http")
+public class OutboundHttpProperties {
+
+    private int maxConnections = 200;
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration connectionTtl = Duration.ofMinutes(5);
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    private HostProfile defaults = HostProfile.of(Duration.ofSeconds(5), Duration.ofSeconds(30), 20);
+    private Map<String, HostProfile> hosts = new HashMap<>();
+
+    /**
+     * Gets the profile for a destination host.
+     *
+     * @param host The host name
+     * @return The host's profile, with unset values taken from the default profile
+     */
+    public HostProfile profileFor(String host) {
+        HostProfile profile = host != null ? hosts.get(host.toLowerCase(Locale.ROOT)) : null;
+        if (profile == null) {
+            return defaults;
+        }
+
+        return HostProfile.of(
+                profile.getConnectTimeout() != null ? profile.getConnectTimeout() : defaults.getConnectTimeout(),
+                profile.getResponseTimeout() != null ? profile.getResponseTimeout() : defaults.getResponseTimeout(),
+                profile.getMaxConnections() != null ? profile.getMaxConnections() : defaults.getMaxConnections());
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getConnectionTtl() {
+        return connectionTtl;
+    }
+
+    public void setConnectionTtl(Duration connectionTtl) {
+        this.connectionTtl = connectionTtl;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public HostProfile getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(HostProfile defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, HostProfile> getHosts() {
+        return hosts;
+    }
+
+    public void setHosts(Map<String, HostProfile> hosts) {
+        Map<String, HostProfile> normalized = new HashMap<>();
+        hosts.forEach((host, profile) -> normalized.put(host.toLowerCase(Locale.ROOT), profile));
+        this.hosts = normalized;
+    }
+
+    /**
+     * Timeouts and connection limit for one destination. Values left unset fall back to the default profile.
+     */
+    public static class HostProfile {
+
+        private Duration connectTimeout;
+        private Duration responseTimeout;
+        private Integer maxConnections;
+
+        static HostProfile of(Duration connectTimeout, Duration responseTimeout, Integer maxConnections) {
+            HostProfile profile = new HostProfile();
+            profile.setConnectTimeout(connectTimeout);
+            profile.setResponseTimeout(responseTimeout);
+            profile.setMaxConnections(maxConnections);
+            return profile;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.moxakk.analyzer.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -11,12 +12,13 @@ import org.springframework.web.client.RestTemplate;
 public class RestTemplateConfig {
 
     /**
-     * Creates a RestTemplate bean.
+     * Creates a RestTemplate bean backed by the shared outbound connection pool.
      *
+     * @param outboundRequestFactory The pooled request factory
      * @return RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory outboundRequestFactory) {
+        return new RestTemplate(outboundRequestFactory);
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.moxakk.analyzer.scraping.football.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rate limits for the AI providers.
+ * Each provider gets a requests-per-minute and a tokens-per-minute budget; providers without an
+ * entry use the default limit, and an unset or non-positive value means unlimited. Calls that
+ * would exceed the budget wait in a bounded queue instead of being sent and rejected.
+ */
+@ConfigurationProperties(prefix = "football.ai.rate-limit")
+public class AiRateLimitProperties {
+
+    private boolean enabled = true;
+    private int maxQueue = 50;
+    private Duration maxWait = Duration.ofSeconds(30);
+    private int completionTokens = 500;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> providers = new HashMap<>();
+
+    /**
+     * Gets the limit for a provider.
+     *
+     * @param provider The provider name
+     * @return The provider's limit, with unset values taken from the default limit
+     */
+    public Limit limitFor(String provider) {
+        Limit limit = providers.get(provider.toLowerCase(Locale.ROOT));
+        if (limit == null) {
+            return defaults;
+        }
+
+        return Limit.of(
+                limit.getRequestsPerMinute() != null ? limit.getRequestsPerMinute() : defaults.getRequestsPerMinute(),
+                limit.getTokensPerMinute() != null ? limit.getTokensPerMinute() : defaults.getTokensPerMinute());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maximum number of calls that may wait for one provider at a time.
+     *
+     * @return The queue size
+     */
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public void setMaxQueue(int maxQueue) {
+        this.maxQueue = maxQueue;
+    }
+
+    /**
+     * Gets the longest a call may wait for its turn before it is rejected.
+     *
+     * @return The maximum wait
+     */
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Gets the number of completion tokens reserved per call, on top of the prompt tokens, until
+     * the actual completion length is known.
+     *
+     * @return The reserved completion tokens
+     */
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<String, Limit> providers) {
+        Map<String, Limit> normalized = new HashMap<>();
+        providers.forEach((name, limit) -> normalized.put(name.toLowerCase(Locale.ROOT), limit));
+        this.providers = normalized;
+    }
+
+    /**
+     * Request and token budget of one provider.
+     */
+    public static class Limit {
+        private Integer requestsPerMinute;
+        private Integer tokensPerMinute;
+
+        public static Limit of(Integer requestsPerMinute, Integer tokensPerMinute) {
+            Limit limit = new Limit();
+            limit.setRequestsPerMinute(requestsPerMinute);
+            limit.setTokensPerMinute(tokensPerMinute);
+            return limit;
+        }
+
+        public Integer getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public void setRequestsPerMinute(Integer requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+        }
+
+        public Integer getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+
+        public void setTokensPerMinute(Integer tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.moxakk.analyzer.scraping.football.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration class for football scraping functionality.
  */
 @Configuration
+@EnableConfigurationProperties(AiRateLimitProperties.class)
+@EnableScheduling
 public class FootballScrapingConfig {
 
     /**
@@ -23,11 +34,103 @@ public class FootballScrapingConfig {
 
     /**
      * Creates and configures a RestTemplate bean for making HTTP requests specific to football scraping.
+     * Requests share the pooled outbound transport, so AI and weather calls reuse keep-alive
+     * connections and are bounded by their host's timeout profile.
      *
+     * @param outboundRequestFactory The pooled request factory
      * @return A configured RestTemplate instance
      */
     @Bean
-    public RestTemplate footballRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate footballRestTemplate(ClientHttpRequestFactory outboundRequestFactory) {
+        return new RestTemplate(outboundRequestFactory);
+    }
+
+    /**
+     * Creates a WebClient for streaming AI provider responses over the shared outbound transport.
+     *
+     * @param outboundHttpConnector The pooled connector
+     * @return A configured WebClient instance
+     */
+    @Bean
+    public WebClient aiWebClient(ReactorClientHttpConnector outboundHttpConnector) {
+        return WebClient.builder()
+                .clientConnector(outboundHttpConnector)
+                .build();
+    }
+
+    /**
+     * Creates the executor that runs independent scrape stages of a match analysis concurrently.
+     *
+     * @param poolSize Number of scrape stages that may run at the same time
+     * @param queueCapacity Number of stages that may wait for a free thread
+     * @return A configured executor
+     */
+    @Bean(name = "scrapeExecutor")
+    public ThreadPoolTaskExecutor scrapeExecutor(@Value("${football.scrape.executor.pool-size:8}") int poolSize,
+                                                 @Value("${football.scrape.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("scrape-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor that fetches weather for several locations concurrently.
+     *
+     * @param poolSize Number of weather requests that may run at the same time
+     * @return A configured executor
+     */
+    @Bean(name = "weatherExecutor")
+    public ThreadPoolTaskExecutor weatherExecutor(@Value("${football.weather.executor.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("weather-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor that delivers analysis job events to Server-Sent Event subscribers, so
+     * slow clients never block the scrape, job or HTTP client threads that publish the events.
+     * Each job channel has at most one delivery task queued at a time.
+     *
+     * @param poolSize Number of channels that may be delivering at the same time
+     * @return A configured executor
+     */
+    @Bean(name = "eventExecutor")
+    public ThreadPoolTaskExecutor eventExecutor(@Value("${football.jobs.events.executor.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("job-events-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor that runs submitted analysis jobs, so request threads are not held
+     * for the duration of an analysis. Submissions beyond the queue capacity are rejected.
+     *
+     * @param poolSize Number of jobs that may run at the same time
+     * @param queueCapacity Number of jobs that may wait for a free worker
+     * @return A configured executor
+     */
+    @Bean(name = "analysisJobExecutor")
+    public ThreadPoolTaskExecutor analysisJobExecutor(@Value("${football.jobs.executor.pool-size:4}") int poolSize,
+                                                      @Value("${football.jobs.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analysis-job-");
+        executor.initialize();
+        return executor;
     }
-}
\ No newline at end of file
+}
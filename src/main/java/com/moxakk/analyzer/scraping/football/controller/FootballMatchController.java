@@ -1,17 +1,35 @@
 package com.moxakk.analyzer.scraping.football.controller;
 
-import com.moxakk.analyzer.scraping.football.service.FootballScrapingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.model.AnalysisJob;
+import com.moxakk.analyzer.scraping.football.model.CommentaryOptions;
+import com.moxakk.analyzer.scraping.football.model.Fixture;
+import com.moxakk.analyzer.scraping.football.service.AnalysisEventHub;
+import com.moxakk.analyzer.scraping.football.service.AnalysisJobService;
+import com.moxakk.analyzer.scraping.football.service.WeatherService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for football match analysis.
@@ -23,43 +41,268 @@ public class FootballMatchController {
 
     private static final Logger logger = LoggerFactory.getLogger(FootballMatchController.class);
 
-    private final FootballScrapingService footballScrapingService;
+    private final AnalysisJobService analysisJobService;
+    private final AnalysisEventHub analysisEventHub;
+    private final ObjectMapper objectMapper;
+    private final WeatherService weatherService;
+
+    @Value("${football.commentary.batch.max-fixtures:50}")
+    private int maxBatchFixtures;
 
     @Autowired
-    public FootballMatchController(FootballScrapingService footballScrapingService) {
-        this.footballScrapingService = footballScrapingService;
+    public FootballMatchController(AnalysisJobService analysisJobService, AnalysisEventHub analysisEventHub, ObjectMapper objectMapper,
+                                   WeatherService weatherService) {
+        this.analysisJobService = analysisJobService;
+        this.analysisEventHub = analysisEventHub;
+        this.objectMapper = objectMapper;
+        this.weatherService = weatherService;
     }
 
     /**
      * Analyzes a football match and generates commentary.
+     * Kept for compatibility: the analysis runs as a background job and the response is written
+     * when it completes, without holding a request thread in the meantime.
      *
      * @param request The match request containing home and away teams
-     * @return A response entity containing match data and commentary
+     * @return A future response entity containing match data and commentary
      */
     @PostMapping("/get-match")
-    public ResponseEntity<Map<String, Object>> getMatch(@RequestBody MatchRequest request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getMatch(@RequestBody MatchRequest request) {
         logger.info("Received match request: {}", request);
 
+        String validationError = validate(request);
+        if (validationError != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(createErrorResponse(validationError)));
+        }
+
         try {
-            // Validate request
-            if (request.getHomeTeam() == null || request.getHomeTeam().isEmpty() ||
-                request.getAwayTeam() == null || request.getAwayTeam().isEmpty()) {
-                return ResponseEntity.badRequest().body(createErrorResponse("Home team and away team are required"));
-            }
+            return analysisJobService.submitAndAwait(request.getHomeTeam(), request.getAwayTeam(), toOptions(request))
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(error -> {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        logger.error("Error processing match request: {}", cause.getMessage(), cause);
+                        return ResponseEntity.internalServerError().body(createErrorResponse("Error processing match request: " + cause.getMessage()));
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(queueFullResponse());
+        } catch (Exception e) {
+            logger.error("Error processing match request: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.internalServerError().body(createErrorResponse("Error processing match request: " + e.getMessage())));
+        }
+    }
+
+    /**
+     * Analyzes several fixtures and generates their commentary in batch mode, where each AI
+     * provider predicts several fixtures per call. Intended for bulk runs such as a full matchday.
+     *
+     * @param request The fixtures to analyze
+     * @return A future response entity with one result per fixture
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> analyzeBatch(@RequestBody BatchRequest request) {
+        logger.info("Received batch request: {}", request);
+
+        String validationError = validate(request);
+        if (validationError != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(createErrorResponse(validationError)));
+        }
+
+        try {
+            return analysisJobService.runBatch(request.getFixtures())
+                    .thenApply(results -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("results", results);
+                        return ResponseEntity.ok(response);
+                    })
+                    .exceptionally(error -> {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        logger.error("Error processing batch request: {}", cause.getMessage(), cause);
+                        return ResponseEntity.internalServerError().body(createErrorResponse("Error processing batch request: " + cause.getMessage()));
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(queueFullResponse());
+        }
+    }
+
+    /**
+     * Gets the current weather for several venues at once, e.g. for all fixtures of a matchday.
+     *
+     * @param request The venues
+     * @return Weather data by venue
+     */
+    @PostMapping("/weather")
+    public ResponseEntity<Map<String, Object>> getWeather(@RequestBody WeatherRequest request) {
+        if (request.getVenues() == null || request.getVenues().isEmpty()) {
+            return ResponseEntity.badRequest().body(createErrorResponse("At least one venue is required"));
+        }
+        if (request.getVenues().size() > maxBatchFixtures) {
+            return ResponseEntity.badRequest().body(createErrorResponse("At most " + maxBatchFixtures + " venues are allowed per request"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("weather", weatherService.getWeatherDataForVenues(request.getVenues()));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Submits a match analysis job.
+     *
+     * @param request The match request containing home and away teams
+     * @return 202 Accepted with the job ID and its status URL
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestBody MatchRequest request) {
+        logger.info("Received job request: {}", request);
+
+        String validationError = validate(request);
+        if (validationError != null) {
+            return ResponseEntity.badRequest().body(createErrorResponse(validationError));
+        }
 
-            // Analyze match and generate commentary
-            Map<String, Object> result = footballScrapingService.analyzeMatchAndGenerateCommentary(
-                request.getHomeTeam(),
-                request.getAwayTeam()
-            );
+        try {
+            AnalysisJob job = analysisJobService.submit(request.getHomeTeam(), request.getAwayTeam(), toOptions(request));
 
-            return ResponseEntity.ok(result);
+            Map<String, Object> response = new HashMap<>();
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/jobs/" + job.getId());
+            response.put("eventsUrl", "/api/jobs/" + job.getId() + "/events");
+            return ResponseEntity.accepted().body(response);
+        } catch (RejectedExecutionException e) {
+            return queueFullResponse();
         } catch (Exception e) {
-            logger.error("Error processing match request: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(createErrorResponse("Error processing match request: " + e.getMessage()));
+            logger.error("Error submitting job: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(createErrorResponse("Error submitting job: " + e.getMessage()));
         }
     }
 
+    /**
+     * Gets the status of an analysis job, including its result once completed.
+     *
+     * @param jobId The job ID
+     * @return The job status, or 404 if the job does not exist
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        return analysisJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(toJobResponse(job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(createErrorResponse("Job not found: " + jobId)));
+    }
+
+    /**
+     * Streams an analysis job's progress as Server-Sent Events.
+     * Emits a {@code section} event for each match data section as soon as it is scraped, a
+     * {@code commentary} event for each AI provider as it answers, and finally a {@code complete}
+     * event with the full result or a {@code failed} event. Events published before the client
+     * subscribed are replayed first.
+     *
+     * @param jobId The job ID
+     * @return The event stream, or 404 if the job does not exist
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        SseEmitter emitter = analysisEventHub.subscribe(jobId);
+        if (emitter != null) {
+            return ResponseEntity.ok(emitter);
+        }
+
+        // The channel is gone, e.g. after a restart or once retention expired; fall back to the stored outcome
+        Optional<AnalysisJob> job = analysisJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = toJobResponse(job.get());
+        if (job.get().getStatus() == AnalysisJob.Status.COMPLETED) {
+            return ResponseEntity.ok(analysisEventHub.replayFinal(AnalysisEventHub.EVENT_COMPLETE, response.get("result")));
+        }
+        if (job.get().getStatus() == AnalysisJob.Status.FAILED) {
+            return ResponseEntity.ok(analysisEventHub.replayFinal(AnalysisEventHub.EVENT_FAILED, Map.of("error", String.valueOf(job.get().getError()))));
+        }
+        return ResponseEntity.ok(analysisEventHub.replayFinal(AnalysisEventHub.EVENT_STATUS, Map.of("status", job.get().getStatus())));
+    }
+
+    /**
+     * Validates a match request.
+     *
+     * @param request The match request
+     * @return The validation error, or null if the request is valid
+     */
+    private String validate(MatchRequest request) {
+        if (request.getHomeTeam() == null || request.getHomeTeam().isEmpty() ||
+            request.getAwayTeam() == null || request.getAwayTeam().isEmpty()) {
+            return "Home team and away team are required";
+        }
+        if (request.getQuorum() != null && request.getQuorum() < 1) {
+            return "Quorum must be at least 1";
+        }
+        if (request.getDeadlineMs() != null && request.getDeadlineMs() < 0) {
+            return "Deadline must not be negative";
+        }
+        if (request.getProviders() != null && request.getProviders() < 1) {
+            return "Providers must be at least 1";
+        }
+        return null;
+    }
+
+    /**
+     * Validates a batch request.
+     *
+     * @param request The batch request
+     * @return The validation error, or null if the request is valid
+     */
+    private String validate(BatchRequest request) {
+        if (request.getFixtures() == null || request.getFixtures().isEmpty()) {
+            return "At least one fixture is required";
+        }
+        if (request.getFixtures().size() > maxBatchFixtures) {
+            return "At most " + maxBatchFixtures + " fixtures are allowed per batch";
+        }
+        for (Fixture fixture : request.getFixtures()) {
+            if (fixture == null || fixture.getHomeTeam() == null || fixture.getHomeTeam().isEmpty() ||
+                fixture.getAwayTeam() == null || fixture.getAwayTeam().isEmpty()) {
+                return "Home team and away team are required for every fixture";
+            }
+        }
+        return null;
+    }
+
+    private CommentaryOptions toOptions(MatchRequest request) {
+        return new CommentaryOptions(request.getQuorum(), request.getDeadlineMs(), request.getProviders());
+    }
+
+    private ResponseEntity<Map<String, Object>> queueFullResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(createErrorResponse("Analysis queue is full, try again later"));
+    }
+
+    /**
+     * Converts a job to its API representation.
+     *
+     * @param job The job
+     * @return A map containing the job's status and, once completed, its result
+     */
+    private Map<String, Object> toJobResponse(AnalysisJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("homeTeam", job.getHomeTeam());
+        response.put("awayTeam", job.getAwayTeam());
+        response.put("status", job.getStatus());
+        response.put("createdAt", job.getCreatedAt().toString());
+        response.put("updatedAt", job.getUpdatedAt().toString());
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        if (job.getResult() != null) {
+            try {
+                response.put("result", objectMapper.readTree(job.getResult()));
+            } catch (JsonProcessingException e) {
+                logger.error("Error parsing result of job {}: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+        return response;
+    }
+
     /**
      * Creates an error response.
      *
@@ -78,6 +321,9 @@ public class FootballMatchController {
     public static class MatchRequest {
         private String homeTeam;
         private String awayTeam;
+        private Integer quorum;
+        private Long deadlineMs;
+        private Integer providers;
 
         public MatchRequest() {
             // Default constructor
@@ -104,12 +350,84 @@ public class FootballMatchController {
             this.awayTeam = awayTeam;
         }
 
+        public Integer getQuorum() {
+            return quorum;
+        }
+
+        public void setQuorum(Integer quorum) {
+            this.quorum = quorum;
+        }
+
+        public Long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public void setDeadlineMs(Long deadlineMs) {
+            this.deadlineMs = deadlineMs;
+        }
+
+        public Integer getProviders() {
+            return providers;
+        }
+
+        public void setProviders(Integer providers) {
+            this.providers = providers;
+        }
+
         @Override
         public String toString() {
             return "MatchRequest{" +
                     "homeTeam='" + homeTeam + '\'' +
                     ", awayTeam='" + awayTeam + '\'' +
+                    ", quorum=" + quorum +
+                    ", deadlineMs=" + deadlineMs +
+                    ", providers=" + providers +
+                    '}';
+        }
+    }
+
+    /**
+     * Request class for batch analysis.
+     */
+    public static class BatchRequest {
+        private List<Fixture> fixtures;
+
+        public BatchRequest() {
+            // Default constructor
+        }
+
+        public List<Fixture> getFixtures() {
+            return fixtures;
+        }
+
+        public void setFixtures(List<Fixture> fixtures) {
+            this.fixtures = fixtures;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchRequest{" +
+                    "fixtures=" + fixtures +
                     '}';
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Request class for bulk weather lookups.
+     */
+    public static class WeatherRequest {
+        private List<String> venues;
+
+        public WeatherRequest() {
+            // Default constructor
+        }
+
+        public List<String> getVenues() {
+            return venues;
+        }
+
+        public void setVenues(List<String> venues) {
+            this.venues = venues;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.moxakk.analyzer.scraping.football.exception;
+
+/**
+ * Exception thrown when a call cannot be scheduled within a provider's rate limit, because the
+ * provider's wait queue is full or the wait would be too long.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new RateLimitExceededException with the specified detail message.
+     *
+     * @param message The detail message
+     */
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,151 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+import java.time.Instant;
+
+/**
+ * Represents a match analysis submitted for background processing.
+ */
+public class AnalysisJob {
+
+    /**
+     * Lifecycle state of a job.
+     */
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private String id;
+    private String homeTeam;
+    private String awayTeam;
+    private Integer quorum;
+    private Long deadlineMs;
+    private Integer providerCount;
+    private Status status;
+    private String result;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public AnalysisJob() {
+        // Default constructor
+    }
+
+    /**
+     * Gets the commentary options the job was submitted with.
+     *
+     * @return The commentary options
+     */
+    public CommentaryOptions getOptions() {
+        return new CommentaryOptions(quorum, deadlineMs, providerCount);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getHomeTeam() {
+        return homeTeam;
+    }
+
+    public void setHomeTeam(String homeTeam) {
+        this.homeTeam = homeTeam;
+    }
+
+    public String getAwayTeam() {
+        return awayTeam;
+    }
+
+    public void setAwayTeam(String awayTeam) {
+        this.awayTeam = awayTeam;
+    }
+
+    public Integer getQuorum() {
+        return quorum;
+    }
+
+    public void setQuorum(Integer quorum) {
+        this.quorum = quorum;
+    }
+
+    public Long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(Long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    public Integer getProviderCount() {
+        return providerCount;
+    }
+
+    public void setProviderCount(Integer providerCount) {
+        this.providerCount = providerCount;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the job result as a JSON document with matchData and commentary.
+     *
+     * @return The result JSON, or null until the job has completed
+     */
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisJob{" +
+                "id='" + id + '\'' +
+                ", homeTeam='" + homeTeam + '\'' +
+                ", awayTeam='" + awayTeam + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+/**
+ * Represents the options that control how commentary is collected from AI providers.
+ */
+public class CommentaryOptions {
+    private Integer quorum;
+    private Long deadlineMs;
+    private Integer providers;
+
+    public CommentaryOptions() {
+        // Default constructor
+    }
+
+    public CommentaryOptions(Integer quorum, Long deadlineMs) {
+        this.quorum = quorum;
+        this.deadlineMs = deadlineMs;
+    }
+
+    public CommentaryOptions(Integer quorum, Long deadlineMs, Integer providers) {
+        this(quorum, deadlineMs);
+        this.providers = providers;
+    }
+
+    /**
+     * Creates options that wait for every provider.
+     *
+     * @return Default commentary options
+     */
+    public static CommentaryOptions defaults() {
+        return new CommentaryOptions();
+    }
+
+    /**
+     * Gets the number of successful provider responses after which commentary is returned.
+     * Null means all providers are awaited.
+     *
+     * @return The quorum, or null
+     */
+    public Integer getQuorum() {
+        return quorum;
+    }
+
+    public void setQuorum(Integer quorum) {
+        this.quorum = quorum;
+    }
+
+    /**
+     * Gets the soft deadline in milliseconds after which whatever has arrived is returned.
+     * Null means no soft deadline; the per-provider timeout still applies.
+     *
+     * @return The soft deadline in milliseconds, or null
+     */
+    public Long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(Long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Gets the number of providers to call; the fastest healthy providers are chosen.
+     * Null means all providers are called.
+     *
+     * @return The provider count, or null
+     */
+    public Integer getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Integer providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * Gets a key that identifies these options, for coalescing identical requests.
+     *
+     * @return The options key
+     */
+    public String toKey() {
+        return "q=" + quorum + ",d=" + deadlineMs + ",p=" + providers;
+    }
+}
@@ -0,0 +1,39 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+/**
+ * Represents a fixture to analyze, identified by its home and away teams.
+ */
+public class Fixture {
+    private String homeTeam;
+    private String awayTeam;
+
+    public Fixture() {
+        // Default constructor
+    }
+
+    public Fixture(String homeTeam, String awayTeam) {
+        this.homeTeam = homeTeam;
+        this.awayTeam = awayTeam;
+    }
+
+    public String getHomeTeam() {
+        return homeTeam;
+    }
+
+    public void setHomeTeam(String homeTeam) {
+        this.homeTeam = homeTeam;
+    }
+
+    public String getAwayTeam() {
+        return awayTeam;
+    }
+
+    public void setAwayTeam(String awayTeam) {
+        this.awayTeam = awayTeam;
+    }
+
+    @Override
+    public String toString() {
+        return homeTeam + " vs " + awayTeam;
+    }
+}
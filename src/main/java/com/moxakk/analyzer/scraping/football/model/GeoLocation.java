@@ -0,0 +1,27 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+/**
+ * Represents the coordinates of a venue.
+ */
+public class GeoLocation {
+    private final String lat;
+    private final String lon;
+
+    public GeoLocation(String lat, String lon) {
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    public String getLat() {
+        return lat;
+    }
+
+    public String getLon() {
+        return lon;
+    }
+
+    @Override
+    public String toString() {
+        return lat + "," + lon;
+    }
+}
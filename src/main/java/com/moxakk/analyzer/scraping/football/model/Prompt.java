@@ -0,0 +1,87 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+import com.moxakk.analyzer.scraping.football.util.TokenEstimator;
+
+import java.util.List;
+
+/**
+ * Represents a prompt for the AI providers, split into a stable instruction prefix and a
+ * per-match suffix. The prefix is identical for every match, so providers that cache prompt
+ * prefixes can reuse it across requests.
+ */
+public class Prompt {
+    private final String instructions;
+    private final String input;
+    private final String format;
+    private final List<String> omittedSections;
+
+    public Prompt(String instructions, String input) {
+        this(instructions, input, null, List.of());
+    }
+
+    public Prompt(String instructions, String input, String format, List<String> omittedSections) {
+        this.instructions = instructions;
+        this.input = input;
+        this.format = format;
+        this.omittedSections = List.copyOf(omittedSections);
+    }
+
+    /**
+     * Gets the stable instruction prefix, sent as the system prompt where the provider has one.
+     *
+     * @return The instructions
+     */
+    public String getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Gets the per-match part of the prompt.
+     *
+     * @return The match input
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Gets the encoding used for the match data.
+     *
+     * @return The encoding, e.g. verbose or compact, or null if not known
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the sections left out of the match data to meet the token budget.
+     *
+     * @return The omitted section names, lowest-value first
+     */
+    public List<String> getOmittedSections() {
+        return omittedSections;
+    }
+
+    /**
+     * Gets the estimated token count of the whole prompt.
+     *
+     * @return The estimated tokens
+     */
+    public int getEstimatedTokens() {
+        return TokenEstimator.estimate(getText());
+    }
+
+    /**
+     * Gets the whole prompt as one text, prefix first, for providers without a system prompt.
+     *
+     * @return The prompt text
+     */
+    public String getText() {
+        return instructions + "\n\n" + input;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
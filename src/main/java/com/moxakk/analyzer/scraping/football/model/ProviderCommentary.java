@@ -0,0 +1,161 @@
+package com.moxakk.analyzer.scraping.football.model;
+
+/**
+ * Represents the commentary returned by a single AI provider, with its outcome and latency.
+ */
+public class ProviderCommentary {
+
+    /**
+     * Outcome of a provider call.
+     */
+    public enum Status {
+        SUCCESS,
+        ERROR,
+        TIMEOUT,
+        SKIPPED,
+        CIRCUIT_OPEN,
+        RATE_LIMITED
+    }
+
+    private String provider;
+    private Status status;
+    private long latencyMs;
+    private String commentary;
+    private boolean cached;
+    private Integer inputTokens;
+    private Integer cachedTokens;
+    private Integer outputTokens;
+    private String promptFormat;
+    private Integer promptTokens;
+    private Integer batchSize;
+
+    public ProviderCommentary() {
+        // Default constructor
+    }
+
+    public ProviderCommentary(String provider, Status status, long latencyMs, String commentary) {
+        this.provider = provider;
+        this.status = status;
+        this.latencyMs = latencyMs;
+        this.commentary = commentary;
+    }
+
+    public ProviderCommentary(String provider, Status status, long latencyMs, String commentary, boolean cached) {
+        this(provider, status, latencyMs, commentary);
+        this.cached = cached;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public String getCommentary() {
+        return commentary;
+    }
+
+    public void setCommentary(String commentary) {
+        this.commentary = commentary;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    /**
+     * Gets the number of prompt tokens the provider reported, including those served from its prompt cache.
+     *
+     * @return The input token count, or null if not reported
+     */
+    public Integer getInputTokens() {
+        return inputTokens;
+    }
+
+    public void setInputTokens(Integer inputTokens) {
+        this.inputTokens = inputTokens;
+    }
+
+    /**
+     * Gets the number of prompt tokens the provider served from its prompt cache.
+     *
+     * @return The cached token count, or null if not reported
+     */
+    public Integer getCachedTokens() {
+        return cachedTokens;
+    }
+
+    public void setCachedTokens(Integer cachedTokens) {
+        this.cachedTokens = cachedTokens;
+    }
+
+    public Integer getOutputTokens() {
+        return outputTokens;
+    }
+
+    public void setOutputTokens(Integer outputTokens) {
+        this.outputTokens = outputTokens;
+    }
+
+    /**
+     * Gets the encoding of the match data in the prompt, for comparing encodings.
+     *
+     * @return The prompt format, e.g. verbose or compact
+     */
+    public String getPromptFormat() {
+        return promptFormat;
+    }
+
+    public void setPromptFormat(String promptFormat) {
+        this.promptFormat = promptFormat;
+    }
+
+    /**
+     * Gets the estimated token count of the prompt, available even when the provider reports no usage.
+     *
+     * @return The estimated prompt tokens
+     */
+    public Integer getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(Integer promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    /**
+     * Gets the number of matches that shared the provider call in batch mode.
+     * Token usage and prompt size are then this match's share of the whole batch.
+     *
+     * @return The batch size, or null if the match had its own call
+     */
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,168 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking HTTP plumbing shared by the AI providers.
+ */
+@Component
+public class AiHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiHttpClient.class);
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public AiHttpClient(@Qualifier("aiWebClient") WebClient webClient, ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Posts a completion request and reads the JSON response.
+     *
+     * @param provider The provider name, for messages
+     * @param url The endpoint URL
+     * @param headers Authentication headers
+     * @param requestBody The request body
+     * @param onHeaders Receives the response headers, such as rate-limit budgets
+     * @return The response body
+     */
+    public Mono<JsonNode> postForJson(String provider, String url, HttpHeaders headers, Map<String, Object> requestBody,
+                                      Consumer<HttpHeaders> onHeaders) {
+        return webClient.post()
+                .uri(url)
+                .headers(h -> h.addAll(headers))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .retrieve()
+                .toEntity(JsonNode.class)
+                .doOnNext(entity -> onHeaders.accept(entity.getHeaders()))
+                .mapNotNull(HttpEntity::getBody)
+                .doOnError(e -> logger.error("Error getting {} response: {}", provider, e.getMessage(), e));
+    }
+
+    /**
+     * Posts a streaming completion request and assembles the text fragments of its event stream.
+     *
+     * @param provider The provider name, for messages
+     * @param url The endpoint URL
+     * @param headers Authentication headers
+     * @param requestBody The request body
+     * @param onHeaders Receives the response headers, such as rate-limit budgets
+     * @param extractToken Extracts the text fragment of an event, or null for events without text; may
+     *                     also record token usage reported by the event on the completion
+     * @param onToken Receives each text fragment as it arrives
+     * @return The assembled completion
+     */
+    public Mono<Completion> streamCompletion(String provider, String url, HttpHeaders headers, Map<String, Object> requestBody,
+                                             Consumer<HttpHeaders> onHeaders,
+                                             BiFunction<ServerSentEvent<String>, Completion, String> extractToken,
+                                             Consumer<String> onToken) {
+        return Mono.defer(() -> {
+            Completion completion = new Completion();
+            return webClient.post()
+                    .uri(url)
+                    .headers(h -> h.addAll(headers))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .toEntityFlux(SSE_EVENT)
+                    .flatMapMany(entity -> {
+                        onHeaders.accept(entity.getHeaders());
+                        return entity.getBody() != null ? entity.getBody() : Flux.<ServerSentEvent<String>>empty();
+                    })
+                    .filter(event -> event.data() != null && !"[DONE]".equals(event.data()))
+                    .mapNotNull(event -> extractToken.apply(event, completion))
+                    .doOnNext(onToken)
+                    .collect(StringBuilder::new, StringBuilder::append)
+                    .filter(text -> text.length() > 0)
+                    .map(text -> {
+                        completion.setText(text.toString());
+                        return completion;
+                    })
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("Failed to get response from " + provider)));
+        }).doOnError(e -> logger.error("Error streaming {} response: {}", provider, e.getMessage(), e));
+    }
+
+    /**
+     * Creates a completion from the text field of a response, or signals an error if the response carries no text.
+     *
+     * @param provider The provider name, for messages
+     * @param text The response field
+     * @return The completion, without usage
+     */
+    public static Mono<Completion> toCompletion(String provider, JsonNode text) {
+        String value = textOrNull(text);
+        return value != null ? Mono.just(new Completion(value)) : Mono.error(new IllegalStateException("Failed to get response from " + provider));
+    }
+
+    /**
+     * Parses the data of a stream event.
+     *
+     * @param json The event data
+     * @return The parsed JSON
+     */
+    public JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed stream event: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the text of a JSON field.
+     *
+     * @param node The field
+     * @return The text, or null if the field is missing, empty or not text
+     */
+    public static String textOrNull(JsonNode node) {
+        return node.isTextual() && !node.asText().isEmpty() ? node.asText() : null;
+    }
+
+    /**
+     * Gets the integer value of a JSON field.
+     *
+     * @param node The field
+     * @return The value, or null if the field is missing or not a number
+     */
+    public static Integer intOrNull(JsonNode node) {
+        return node.isNumber() ? node.asInt() : null;
+    }
+
+    /**
+     * Creates headers with a bearer token.
+     *
+     * @param apiKey The API key
+     * @return The headers
+     */
+    public static HttpHeaders bearer(String apiKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        return headers;
+    }
+}
@@ -0,0 +1,75 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * An AI provider that can generate commentary for a prompt.
+ * Implementations are Spring components; they are discovered by {@link AiProviderRegistry} and
+ * returned in {@link org.springframework.core.annotation.Order} order.
+ */
+public interface AiProvider {
+
+    /**
+     * Gets the provider name used in commentary, metrics and cache keys.
+     *
+     * @return The provider name
+     */
+    String getName();
+
+    /**
+     * Gets the model the provider calls.
+     *
+     * @return The model name
+     */
+    String getModel();
+
+    /**
+     * Checks whether the provider runs a small, fast model. Fast providers answer the first stage
+     * of the commentary cascade and are not part of the regular fan-out.
+     *
+     * @return true for a fast provider
+     */
+    default boolean isFast() {
+        return false;
+    }
+
+    /**
+     * Gets the provider's API keys.
+     *
+     * @return The key pool
+     */
+    ApiKeyPool getKeyPool();
+
+    /**
+     * Generates a completion. Providers that support prompt caching mark the prompt's instruction
+     * prefix as cacheable and report how many prompt tokens were served from the cache.
+     *
+     * @param prompt The prompt to send
+     * @return The completion with its token usage, or an error signal if the call failed
+     */
+    Mono<Completion> complete(Prompt prompt);
+
+    /**
+     * Checks whether the provider can stream its completion incrementally.
+     *
+     * @return true if {@link #stream(Prompt, Consumer)} streams
+     */
+    default boolean supportsStreaming() {
+        return false;
+    }
+
+    /**
+     * Generates a completion, relaying each text fragment as it arrives.
+     * Providers without a streaming API relay the whole completion as one fragment.
+     *
+     * @param prompt The prompt to send
+     * @param onToken Receives each text fragment
+     * @return The assembled completion with its token usage
+     */
+    default Mono<Completion> stream(Prompt prompt, Consumer<String> onToken) {
+        return complete(prompt).doOnNext(completion -> onToken.accept(completion.getText()));
+    }
+}
@@ -0,0 +1,208 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.moxakk.analyzer.scraping.football.config.AiRateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the available AI providers and their health.
+ * Every provider call is gated by the provider's circuit breaker, so a provider that keeps failing
+ * or timing out is skipped immediately instead of adding its timeout to every analysis. When an
+ * analysis asks for fewer providers than are registered, the fastest healthy ones are chosen.
+ * Fast providers, which answer the first stage of the commentary cascade, are tracked the same way
+ * but routed separately.
+ */
+@Service
+public class AiProviderRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiProviderRegistry.class);
+
+    private final List<AiProvider> providers;
+    private final List<AiProvider> fastProviders;
+    private final Map<String, ProviderHealth> health = new LinkedHashMap<>();
+    private final Map<String, RateLimiter> rateLimiters = new LinkedHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AiProviderRegistry(List<AiProvider> providers, MeterRegistry meterRegistry, AiRateLimitProperties rateLimitProperties,
+                              @Value("${football.ai.latency.window:100}") int window,
+                              @Value("${football.ai.breaker.failure-threshold:3}") int failureThreshold,
+                              @Value("${football.ai.breaker.error-rate-threshold:0.5}") double errorRateThreshold,
+                              @Value("${football.ai.breaker.minimum-calls:10}") int minimumCalls,
+                              @Value("${football.ai.breaker.open-seconds:30}") long openSeconds) {
+        this.providers = providers.stream().filter(provider -> !provider.isFast()).collect(Collectors.toUnmodifiableList());
+        this.fastProviders = providers.stream().filter(AiProvider::isFast).collect(Collectors.toUnmodifiableList());
+        this.meterRegistry = meterRegistry;
+
+        for (AiProvider provider : providers) {
+            ProviderHealth providerHealth = new ProviderHealth(window, failureThreshold, errorRateThreshold, minimumCalls, openSeconds * 1000);
+            health.put(provider.getName(), providerHealth);
+
+            registerGauge("football.ai.provider.latency.ewma", "Moving average latency in milliseconds", provider, providerHealth, ProviderHealth::getEwmaMs);
+            registerGauge("football.ai.provider.latency.p50", "Median latency in milliseconds over the window", provider, providerHealth, h -> h.getLatencyPercentile(0.5));
+            registerGauge("football.ai.provider.latency.p95", "95th percentile latency in milliseconds over the window", provider, providerHealth, h -> h.getLatencyPercentile(0.95));
+            registerGauge("football.ai.provider.error.rate", "Share of failed calls over the window", provider, providerHealth, ProviderHealth::getErrorRate);
+            registerGauge("football.ai.provider.circuit.state", "Circuit breaker state: 0 closed, 1 half-open, 2 open", provider, providerHealth, h -> h.getState().ordinal());
+
+            // Limits are per API key, so a provider with several keys gets a proportionally larger budget
+            AiRateLimitProperties.Limit limit = rateLimitProperties.isEnabled()
+                    ? rateLimitProperties.limitFor(provider.getName())
+                    : AiRateLimitProperties.Limit.of(null, null);
+            int keys = Math.max(provider.getKeyPool().size(), 1);
+            RateLimiter rateLimiter = new RateLimiter(provider.getName(),
+                    limit.getRequestsPerMinute() != null ? limit.getRequestsPerMinute() * keys : null,
+                    limit.getTokensPerMinute() != null ? limit.getTokensPerMinute() * keys : null,
+                    rateLimitProperties.getCompletionTokens(), rateLimitProperties.getMaxQueue(), rateLimitProperties.getMaxWait());
+            rateLimiters.put(provider.getName(), rateLimiter);
+
+            Gauge.builder("football.ai.provider.rate.queue", rateLimiter, RateLimiter::getWaiting)
+                    .tag("provider", provider.getName())
+                    .description("Calls waiting for the provider's rate limit")
+                    .register(meterRegistry);
+            Gauge.builder("football.ai.provider.keys.active", provider.getKeyPool(), ApiKeyPool::getActiveCount)
+                    .tag("provider", provider.getName())
+                    .description("API keys currently in rotation")
+                    .register(meterRegistry);
+        }
+
+        logger.info("Registered AI providers: {}, fast: {}", this.providers.stream().map(AiProvider::getName).collect(Collectors.toList()),
+                fastProviders.stream().map(AiProvider::getName).collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets all registered providers except the fast ones, in declared order.
+     *
+     * @return The providers
+     */
+    public List<AiProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Chooses the providers to call for one analysis.
+     * Without a limit every provider is returned, so each still gets its circuit breaker checked.
+     * With a limit, providers whose breaker would accept a call come first, ordered by moving
+     * average latency; providers without latency data yet count as fastest so they get measured.
+     * The chosen providers are returned in declared order.
+     *
+     * @param count The number of providers wanted, or null for all
+     * @return The providers to call
+     */
+    public List<AiProvider> route(Integer count) {
+        if (count == null || count >= providers.size()) {
+            return providers;
+        }
+
+        List<AiProvider> chosen = byHealth(providers)
+                .limit(Math.max(count, 1))
+                .collect(Collectors.toList());
+
+        return providers.stream().filter(chosen::contains).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the fast providers for the first stage of the commentary cascade, in the order they
+     * should be tried: providers whose breaker would accept a call first, then by moving average latency.
+     *
+     * @return The fast providers, empty if none are registered
+     */
+    public List<AiProvider> routeFast() {
+        return byHealth(fastProviders).collect(Collectors.toList());
+    }
+
+    private Stream<AiProvider> byHealth(List<AiProvider> candidates) {
+        long now = System.currentTimeMillis();
+        return candidates.stream()
+                .sorted(Comparator.comparing((AiProvider provider) -> !health.get(provider.getName()).isAvailable(now))
+                        .thenComparingDouble(provider -> {
+                            double ewma = health.get(provider.getName()).getEwmaMs();
+                            return Double.isNaN(ewma) ? 0 : ewma;
+                        }));
+    }
+
+    /**
+     * Gets the rate limiter that paces calls to a provider.
+     *
+     * @param provider The provider name
+     * @return The provider's rate limiter
+     */
+    public RateLimiter getRateLimiter(String provider) {
+        return rateLimiters.get(provider);
+    }
+
+    /**
+     * Asks the provider's circuit breaker for permission to call it.
+     *
+     * @param provider The provider name
+     * @return true if the call may proceed
+     */
+    public boolean tryAcquire(String provider) {
+        boolean acquired = health.get(provider).tryAcquire(System.currentTimeMillis());
+        if (!acquired) {
+            meterRegistry.counter("football.ai.provider.short.circuited", "provider", provider).increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * Records a successful provider call.
+     *
+     * @param provider The provider name
+     * @param latencyMs The call latency in milliseconds
+     */
+    public void recordSuccess(String provider, long latencyMs) {
+        ProviderHealth providerHealth = health.get(provider);
+        ProviderHealth.State before = providerHealth.getState();
+        providerHealth.recordSuccess(latencyMs);
+        logTransition(provider, before, providerHealth.getState());
+    }
+
+    /**
+     * Records a failed or timed out provider call.
+     *
+     * @param provider The provider name
+     * @param latencyMs The call latency in milliseconds
+     */
+    public void recordFailure(String provider, long latencyMs) {
+        ProviderHealth providerHealth = health.get(provider);
+        ProviderHealth.State before = providerHealth.getState();
+        providerHealth.recordFailure(latencyMs, System.currentTimeMillis());
+        logTransition(provider, before, providerHealth.getState());
+    }
+
+    /**
+     * Releases a provider call that was cancelled before it had an outcome.
+     *
+     * @param provider The provider name
+     */
+    public void release(String provider) {
+        health.get(provider).release();
+    }
+
+    private void logTransition(String provider, ProviderHealth.State before, ProviderHealth.State after) {
+        if (before != after) {
+            logger.warn("Circuit breaker for {} moved from {} to {}", provider, before, after);
+        }
+    }
+
+    private void registerGauge(String name, String description, AiProvider provider, ProviderHealth providerHealth,
+                               ToDoubleFunction<ProviderHealth> value) {
+        Gauge.builder(name, providerHealth, value)
+                .tag("provider", provider.getName())
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Anthropic messages.
+ */
+@Component
+@Order(4)
+public class AnthropicProvider implements AiProvider {
+
+    public static final String MODEL = "claude-3-opus-20240229";
+
+    private static final String URL = "https://api.anthropic.com/v1/messages";
+
+    private final AiHttpClient httpClient;
+    private final ApiKeyPool keyPool;
+
+    public AnthropicProvider(AiHttpClient httpClient, @Value("${anthropic.api.key}") List<String> apiKeys) {
+        this.httpClient = httpClient;
+        this.keyPool = new ApiKeyPool("Anthropic", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "Anthropic";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public ApiKeyPool getKeyPool() {
+        return keyPool;
+    }
+
+    @Override
+    public Mono<Completion> complete(Prompt prompt) {
+        return keyPool.withKey(lease -> httpClient.postForJson(getName(), URL, headers(lease.getKey()), request(prompt, false), lease::update))
+                .flatMap(body -> AiHttpClient.toCompletion(getName(), body.path("content").path(0).path("text"))
+                        .doOnNext(completion -> {
+                            readInputUsage(body.path("usage"), completion);
+                            completion.setOutputTokens(AiHttpClient.intOrNull(body.path("usage").path("output_tokens")));
+                        }));
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+
+    @Override
+    public Mono<Completion> stream(Prompt prompt, Consumer<String> onToken) {
+        return keyPool.withKey(lease -> httpClient.streamCompletion(getName(), URL, headers(lease.getKey()), request(prompt, true),
+                lease::update, this::delta, onToken));
+    }
+
+    private String delta(ServerSentEvent<String> event, Completion completion) {
+        if ("error".equals(event.event())) {
+            throw new IllegalStateException("Anthropic stream error: " + event.data());
+        }
+        if ("message_start".equals(event.event())) {
+            readInputUsage(httpClient.readJson(event.data()).path("message").path("usage"), completion);
+            return null;
+        }
+        if ("message_delta".equals(event.event())) {
+            completion.setOutputTokens(AiHttpClient.intOrNull(httpClient.readJson(event.data()).path("usage").path("output_tokens")));
+            return null;
+        }
+        if (!"content_block_delta".equals(event.event())) {
+            return null;
+        }
+        return AiHttpClient.textOrNull(httpClient.readJson(event.data()).path("delta").path("text"));
+    }
+
+    /**
+     * Reads the prompt token usage. Anthropic reports uncached, cache-read and cache-write tokens
+     * separately; the input total is their sum.
+     *
+     * @param usage The usage object
+     * @param completion The completion to record the usage on
+     */
+    private static void readInputUsage(JsonNode usage, Completion completion) {
+        if (!usage.isObject()) {
+            return;
+        }
+        int cacheRead = usage.path("cache_read_input_tokens").asInt(0);
+        completion.setInputTokens(usage.path("input_tokens").asInt(0) + cacheRead + usage.path("cache_creation_input_tokens").asInt(0));
+        completion.setCachedTokens(cacheRead);
+    }
+
+    /**
+     * Creates a request whose system prompt is the prompt's instructions, marked with a cache
+     * breakpoint so that later requests read it from Anthropic's prompt cache.
+     *
+     * @param prompt The prompt
+     * @param stream Whether to stream the response
+     * @return The request body
+     */
+    private static Map<String, Object> request(Prompt prompt, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", MODEL);
+        requestBody.put("max_tokens", 500);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+
+        Map<String, Object> system = new HashMap<>();
+        system.put("type", "text");
+        system.put("text", prompt.getInstructions());
+        system.put("cache_control", Map.of("type", "ephemeral"));
+        requestBody.put("system", new Object[]{system});
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt.getInput());
+
+        requestBody.put("messages", new Object[]{message});
+        return requestBody;
+    }
+
+    private static HttpHeaders headers(String apiKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-api-key", apiKey);
+        headers.set("anthropic-version", "2023-06-01");
+        return headers;
+    }
+}
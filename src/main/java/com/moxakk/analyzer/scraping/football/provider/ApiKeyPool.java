@@ -0,0 +1,316 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.moxakk.analyzer.scraping.football.exception.RateLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The API keys of one AI provider, and their remaining rate-limit budgets.
+ * Each call leases the key with the most remaining budget, as last reported by the provider's
+ * rate-limit response headers; keys without budget information yet are preferred so they get
+ * measured, and ties go to the key with the fewest calls in flight and then the least recently
+ * used one. A key whose budget reaches zero, or that receives a 429, is taken out of rotation until
+ * its reported reset time; a key that is rejected with 401 or 403 is taken out for good.
+ */
+public class ApiKeyPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyPool.class);
+
+    private static final Duration DEFAULT_RESET = Duration.ofMinutes(1);
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    private static final List<String> REMAINING_REQUESTS_HEADERS = List.of(
+            "x-ratelimit-remaining-requests", "anthropic-ratelimit-requests-remaining");
+    private static final List<String> REMAINING_TOKENS_HEADERS = List.of(
+            "x-ratelimit-remaining-tokens", "anthropic-ratelimit-tokens-remaining");
+    private static final List<String> RESET_REQUESTS_HEADERS = List.of(
+            "x-ratelimit-reset-requests", "anthropic-ratelimit-requests-reset");
+    private static final List<String> RESET_TOKENS_HEADERS = List.of(
+            "x-ratelimit-reset-tokens", "anthropic-ratelimit-tokens-reset");
+
+    private final String provider;
+    private final List<Key> keys;
+    private long uses;
+
+    /**
+     * Creates a pool from the configured keys.
+     *
+     * @param provider The provider name, for messages
+     * @param keys The API keys; blank entries are ignored
+     */
+    public ApiKeyPool(String provider, List<String> keys) {
+        this.provider = provider;
+        List<Key> pooled = new ArrayList<>();
+        for (String key : keys) {
+            if (key != null && !key.isBlank()) {
+                pooled.add(new Key(key.trim(), pooled.size() + 1));
+            }
+        }
+        this.keys = Collections.unmodifiableList(pooled);
+    }
+
+    /**
+     * Makes a call with a leased key, updating the key's budget from the response headers or error.
+     *
+     * @param call Makes the call with the given lease; it must pass response headers to {@link Lease#update(HttpHeaders)}
+     * @param <T> The response type
+     * @return The call's response
+     */
+    public <T> Mono<T> withKey(Function<Lease, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Lease lease = acquire();
+            return call.apply(lease)
+                    .doOnError(lease::failed)
+                    .doFinally(signal -> lease.release());
+        });
+    }
+
+    /**
+     * Gets the number of configured keys.
+     *
+     * @return The key count
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Gets the number of keys currently in rotation.
+     *
+     * @return The number of active keys
+     */
+    public synchronized int getActiveCount() {
+        long now = System.currentTimeMillis();
+        return (int) keys.stream().filter(key -> key.isAvailable(now)).count();
+    }
+
+    /**
+     * Checks whether any key is currently in rotation.
+     *
+     * @return true if a call could lease a key now
+     */
+    public boolean hasAvailableKey() {
+        return getActiveCount() > 0;
+    }
+
+    private synchronized Lease acquire() {
+        long now = System.currentTimeMillis();
+        Key best = null;
+        for (Key key : keys) {
+            if (key.isAvailable(now) && (best == null || key.compareTo(best) > 0)) {
+                best = key;
+            }
+        }
+
+        if (best == null) {
+            if (keys.stream().allMatch(key -> key.revoked)) {
+                throw new IllegalStateException("No valid API key configured for " + provider);
+            }
+            throw new RateLimitExceededException("All " + provider + " API keys are exhausted until their rate limits reset");
+        }
+
+        best.inFlight++;
+        best.lastUsed = ++uses;
+        return new Lease(best);
+    }
+
+    /**
+     * A key leased for one call.
+     */
+    public final class Lease {
+        private final Key key;
+        private boolean released;
+
+        private Lease(Key key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key.value;
+        }
+
+        /**
+         * Updates the key's remaining budget from the rate-limit headers of a response.
+         *
+         * @param headers The response headers
+         */
+        public void update(HttpHeaders headers) {
+            Long remainingRequests = firstLong(headers, REMAINING_REQUESTS_HEADERS);
+            Long remainingTokens = firstLong(headers, REMAINING_TOKENS_HEADERS);
+            synchronized (ApiKeyPool.this) {
+                if (remainingRequests != null) {
+                    key.remainingRequests = remainingRequests;
+                }
+                if (remainingTokens != null) {
+                    key.remainingTokens = remainingTokens;
+                }
+                if (remainingRequests != null && remainingRequests <= 0) {
+                    exhaust(resetTime(headers, RESET_REQUESTS_HEADERS));
+                } else if (remainingTokens != null && remainingTokens <= 0) {
+                    exhaust(resetTime(headers, RESET_TOKENS_HEADERS));
+                }
+            }
+        }
+
+        private void failed(Throwable error) {
+            if (!(error instanceof WebClientResponseException response)) {
+                return;
+            }
+            synchronized (ApiKeyPool.this) {
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)
+                        || response.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN)) {
+                    key.revoked = true;
+                    logger.error("{} rejected API key #{} with {}; removing it from rotation", provider, key.index, response.getStatusCode());
+                } else if (response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                    HttpHeaders headers = response.getHeaders();
+                    String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+                    long until = retryAfter != null
+                            ? System.currentTimeMillis() + parseResetMs(retryAfter.trim() + "s")
+                            : resetTime(headers, RESET_REQUESTS_HEADERS);
+                    key.remainingRequests = 0L;
+                    exhaust(until);
+                }
+            }
+        }
+
+        private void exhaust(long until) {
+            key.exhaustedUntil = until;
+            logger.warn("{} API key #{} is exhausted until {}", provider, key.index, Instant.ofEpochMilli(until));
+        }
+
+        private void release() {
+            synchronized (ApiKeyPool.this) {
+                if (!released) {
+                    released = true;
+                    key.inFlight--;
+                }
+            }
+        }
+    }
+
+    private static Long firstLong(HttpHeaders headers, List<String> names) {
+        for (String name : names) {
+            String value = headers.getFirst(name);
+            if (value != null) {
+                try {
+                    return Long.parseLong(value.trim());
+                } catch (NumberFormatException e) {
+                    // Try the next header
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the time at which a rate limit resets, from a header holding either a timestamp
+     * (Anthropic) or a duration such as "1s" or "6m0s" (OpenAI-compatible providers).
+     *
+     * @param headers The response headers
+     * @param names The candidate header names
+     * @return The reset time in epoch milliseconds
+     */
+    private static long resetTime(HttpHeaders headers, List<String> names) {
+        long now = System.currentTimeMillis();
+        for (String name : names) {
+            String value = headers.getFirst(name);
+            if (value == null) {
+                continue;
+            }
+            try {
+                return Instant.parse(value.trim()).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return now + parseResetMs(value.trim());
+            }
+        }
+        return now + DEFAULT_RESET.toMillis();
+    }
+
+    private static long parseResetMs(String value) {
+        Matcher matcher = DURATION_PART.matcher(value);
+        double totalMs = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            totalMs += switch (matcher.group(2)) {
+                case "ms" -> amount;
+                case "s" -> amount * 1000;
+                case "m" -> amount * 60_000;
+                default -> amount * 3_600_000;
+            };
+        }
+        return matched ? (long) Math.ceil(totalMs) : DEFAULT_RESET.toMillis();
+    }
+
+    /**
+     * One API key and its last known budget. Accessed only while holding the pool's lock.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final String value;
+        private final int index;
+        private Long remainingRequests;
+        private Long remainingTokens;
+        private long exhaustedUntil;
+        private boolean revoked;
+        private int inFlight;
+        private long lastUsed;
+
+        private Key(String value, int index) {
+            this.value = value;
+            this.index = index;
+        }
+
+        boolean isAvailable(long now) {
+            if (revoked) {
+                return false;
+            }
+            if (exhaustedUntil != 0 && now >= exhaustedUntil) {
+                // The window has reset; the budget is unknown until the next response
+                exhaustedUntil = 0;
+                remainingRequests = null;
+                remainingTokens = null;
+            }
+            return exhaustedUntil == 0;
+        }
+
+        /**
+         * Orders keys so that the one to lease next is greatest.
+         */
+        @Override
+        public int compareTo(Key other) {
+            int byRequests = Long.compare(budget(remainingRequests, inFlight), budget(other.remainingRequests, other.inFlight));
+            if (byRequests != 0) {
+                return byRequests;
+            }
+            int byTokens = Long.compare(remainingTokens != null ? remainingTokens : Long.MAX_VALUE,
+                    other.remainingTokens != null ? other.remainingTokens : Long.MAX_VALUE);
+            if (byTokens != 0) {
+                return byTokens;
+            }
+            int byInFlight = Integer.compare(other.inFlight, inFlight);
+            if (byInFlight != 0) {
+                return byInFlight;
+            }
+            return Long.compare(other.lastUsed, lastUsed);
+        }
+
+        private static long budget(Long remaining, int inFlight) {
+            return remaining != null ? remaining - inFlight : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Base class for providers that expose an OpenAI-compatible chat completions API.
+ * The prompt's instructions are sent as the system message, ahead of the match input, so that
+ * providers with automatic prefix caching can reuse them.
+ */
+public abstract class ChatCompletionsProvider implements AiProvider {
+
+    private final AiHttpClient httpClient;
+    private final String url;
+    private final ApiKeyPool keyPool;
+
+    protected ChatCompletionsProvider(AiHttpClient httpClient, String url, String name, List<String> apiKeys) {
+        this.httpClient = httpClient;
+        this.url = url;
+        this.keyPool = new ApiKeyPool(name, apiKeys);
+    }
+
+    @Override
+    public ApiKeyPool getKeyPool() {
+        return keyPool;
+    }
+
+    @Override
+    public Mono<Completion> complete(Prompt prompt) {
+        return keyPool.withKey(lease -> httpClient.postForJson(getName(), url, AiHttpClient.bearer(lease.getKey()),
+                        request(prompt, false), lease::update))
+                .flatMap(body -> AiHttpClient.toCompletion(getName(), body.path("choices").path(0).path("message").path("content"))
+                        .doOnNext(completion -> readUsage(body.path("usage"), completion)));
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+
+    @Override
+    public Mono<Completion> stream(Prompt prompt, Consumer<String> onToken) {
+        return keyPool.withKey(lease -> httpClient.streamCompletion(getName(), url, AiHttpClient.bearer(lease.getKey()),
+                request(prompt, true), lease::update, this::delta, onToken));
+    }
+
+    /**
+     * Checks whether the API accepts stream_options to report usage at the end of a stream.
+     *
+     * @return true to request usage for streamed completions
+     */
+    protected boolean supportsStreamUsage() {
+        return false;
+    }
+
+    private String delta(ServerSentEvent<String> event, Completion completion) {
+        JsonNode chunk = httpClient.readJson(event.data());
+        readUsage(chunk.path("usage"), completion);
+        return AiHttpClient.textOrNull(chunk.path("choices").path(0).path("delta").path("content"));
+    }
+
+    private static void readUsage(JsonNode usage, Completion completion) {
+        if (!usage.isObject()) {
+            return;
+        }
+        completion.setInputTokens(AiHttpClient.intOrNull(usage.path("prompt_tokens")));
+        completion.setCachedTokens(AiHttpClient.intOrNull(usage.path("prompt_tokens_details").path("cached_tokens")));
+        completion.setOutputTokens(AiHttpClient.intOrNull(usage.path("completion_tokens")));
+    }
+
+    private Map<String, Object> request(Prompt prompt, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", getModel());
+        if (stream) {
+            requestBody.put("stream", true);
+            if (supportsStreamUsage()) {
+                requestBody.put("stream_options", Map.of("include_usage", true));
+            }
+        }
+
+        Map<String, Object> system = new HashMap<>();
+        system.put("role", "system");
+        system.put("content", prompt.getInstructions());
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt.getInput());
+
+        requestBody.put("messages", new Object[]{system, message});
+        return requestBody;
+    }
+}
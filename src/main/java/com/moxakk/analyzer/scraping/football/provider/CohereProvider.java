@@ -0,0 +1,64 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cohere text generation. The generate endpoint has no system prompt or prompt caching, so the
+ * whole prompt is sent as one text.
+ */
+@Component
+@Order(3)
+public class CohereProvider implements AiProvider {
+
+    public static final String MODEL = "command";
+
+    private static final String URL = "https://api.cohere.ai/v1/generate";
+
+    private final AiHttpClient httpClient;
+    private final ApiKeyPool keyPool;
+
+    public CohereProvider(AiHttpClient httpClient, @Value("${cohere.api.key}") List<String> apiKeys) {
+        this.httpClient = httpClient;
+        this.keyPool = new ApiKeyPool("Cohere", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "Cohere";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public ApiKeyPool getKeyPool() {
+        return keyPool;
+    }
+
+    @Override
+    public Mono<Completion> complete(Prompt prompt) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", MODEL);
+        requestBody.put("prompt", prompt.getText());
+        requestBody.put("max_tokens", 500);
+
+        return keyPool.withKey(lease -> httpClient.postForJson(getName(), URL, AiHttpClient.bearer(lease.getKey()), requestBody, lease::update))
+                .flatMap(body -> AiHttpClient.toCompletion(getName(), body.path("generations").path(0).path("text"))
+                        .doOnNext(completion -> {
+                            JsonNode billed = body.path("meta").path("billed_units");
+                            completion.setInputTokens(AiHttpClient.intOrNull(billed.path("input_tokens")));
+                            completion.setOutputTokens(AiHttpClient.intOrNull(billed.path("output_tokens")));
+                        }));
+    }
+}
@@ -0,0 +1,62 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+/**
+ * The text of a provider completion and the token usage the provider reported for it.
+ * Token counts are null when the provider did not report them.
+ */
+public class Completion {
+    private String text;
+    private Integer inputTokens;
+    private Integer cachedTokens;
+    private Integer outputTokens;
+
+    public Completion() {
+        // Default constructor
+    }
+
+    public Completion(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets the number of prompt tokens, including those read from the provider's prompt cache.
+     *
+     * @return The input token count, or null
+     */
+    public Integer getInputTokens() {
+        return inputTokens;
+    }
+
+    public void setInputTokens(Integer inputTokens) {
+        this.inputTokens = inputTokens;
+    }
+
+    /**
+     * Gets the number of prompt tokens the provider served from its prompt cache.
+     *
+     * @return The cached token count, or null
+     */
+    public Integer getCachedTokens() {
+        return cachedTokens;
+    }
+
+    public void setCachedTokens(Integer cachedTokens) {
+        this.cachedTokens = cachedTokens;
+    }
+
+    public Integer getOutputTokens() {
+        return outputTokens;
+    }
+
+    public void setOutputTokens(Integer outputTokens) {
+        this.outputTokens = outputTokens;
+    }
+}
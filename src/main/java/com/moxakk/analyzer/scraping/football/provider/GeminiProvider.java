@@ -0,0 +1,108 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Google Gemini content generation.
+ */
+@Component
+@Order(1)
+public class GeminiProvider implements AiProvider {
+
+    public static final String MODEL = "gemini-1.5-flash";
+
+    private static final String URL = "https://generativelanguage.googleapis.com/v1beta/models/" + MODEL;
+
+    private final AiHttpClient httpClient;
+    private final ApiKeyPool keyPool;
+
+    public GeminiProvider(AiHttpClient httpClient, @Value("${google.api.key}") List<String> apiKeys) {
+        this.httpClient = httpClient;
+        this.keyPool = new ApiKeyPool("Gemini", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "Gemini";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public ApiKeyPool getKeyPool() {
+        return keyPool;
+    }
+
+    @Override
+    public Mono<Completion> complete(Prompt prompt) {
+        return keyPool.withKey(lease -> httpClient.postForJson(getName(), URL + ":generateContent?key=" + lease.getKey(),
+                        new HttpHeaders(), request(prompt), lease::update))
+                .flatMap(body -> AiHttpClient.toCompletion(getName(),
+                                body.path("candidates").path(0).path("content").path("parts").path(0).path("text"))
+                        .doOnNext(completion -> readUsage(body.path("usageMetadata"), completion)));
+    }
+
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+
+    @Override
+    public Mono<Completion> stream(Prompt prompt, Consumer<String> onToken) {
+        return keyPool.withKey(lease -> httpClient.streamCompletion(getName(),
+                URL + ":streamGenerateContent?alt=sse&key=" + lease.getKey(), new HttpHeaders(), request(prompt), lease::update,
+                this::delta, onToken));
+    }
+
+    private String delta(ServerSentEvent<String> event, Completion completion) {
+        JsonNode chunk = httpClient.readJson(event.data());
+        // Every chunk carries the usage so far; the last one has the totals
+        readUsage(chunk.path("usageMetadata"), completion);
+        return AiHttpClient.textOrNull(chunk.path("candidates").path(0).path("content").path("parts").path(0).path("text"));
+    }
+
+    private static void readUsage(JsonNode usage, Completion completion) {
+        if (!usage.isObject()) {
+            return;
+        }
+        completion.setInputTokens(AiHttpClient.intOrNull(usage.path("promptTokenCount")));
+        completion.setCachedTokens(AiHttpClient.intOrNull(usage.path("cachedContentTokenCount")));
+        completion.setOutputTokens(AiHttpClient.intOrNull(usage.path("candidatesTokenCount")));
+    }
+
+    /**
+     * Creates a request with the instructions as the system instruction. Gemini caches repeated
+     * prompt prefixes implicitly, so no explicit cache marker is needed.
+     *
+     * @param prompt The prompt
+     * @return The request body
+     */
+    private static Map<String, Object> request(Prompt prompt) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("systemInstruction", Map.of("parts", new Object[]{Map.of("text", prompt.getInstructions())}));
+
+        Map<String, Object> content = new HashMap<>();
+        Map<String, Object> part = new HashMap<>();
+
+        part.put("text", prompt.getInput());
+        content.put("role", "user");
+        content.put("parts", new Object[]{part});
+        requestBody.put("contents", new Object[]{content});
+        return requestBody;
+    }
+}
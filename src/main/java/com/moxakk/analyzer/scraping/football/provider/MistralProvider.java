@@ -0,0 +1,31 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mistral chat completions.
+ */
+@Component
+@Order(5)
+public class MistralProvider extends ChatCompletionsProvider {
+
+    public static final String MODEL = "mistral-large-latest";
+
+    public MistralProvider(AiHttpClient httpClient, @Value("${mistral.api.key}") List<String> apiKeys) {
+        super(httpClient, "https://api.mistral.ai/v1/chat/completions", "Mistral", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "Mistral";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+}
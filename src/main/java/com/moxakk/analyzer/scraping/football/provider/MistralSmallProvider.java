@@ -0,0 +1,36 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mistral chat completions with a small, fast model, used as the first stage of the commentary cascade.
+ */
+@Component
+@Order(7)
+public class MistralSmallProvider extends ChatCompletionsProvider {
+
+    public static final String MODEL = "mistral-small-latest";
+
+    public MistralSmallProvider(AiHttpClient httpClient, @Value("${mistral.api.key}") List<String> apiKeys) {
+        super(httpClient, "https://api.mistral.ai/v1/chat/completions", "Mistral-Small", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "Mistral-Small";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public boolean isFast() {
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * OpenAI chat completions with a small, fast model, used as the first stage of the commentary cascade.
+ */
+@Component
+@Order(6)
+public class OpenAiMiniProvider extends ChatCompletionsProvider {
+
+    public static final String MODEL = "gpt-4o-mini";
+
+    public OpenAiMiniProvider(AiHttpClient httpClient, @Value("${openai.api.key}") List<String> apiKeys) {
+        super(httpClient, "https://api.openai.com/v1/chat/completions", "OpenAI-Mini", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "OpenAI-Mini";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public boolean isFast() {
+        return true;
+    }
+
+    @Override
+    protected boolean supportsStreamUsage() {
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * OpenAI chat completions.
+ */
+@Component
+@Order(2)
+public class OpenAiProvider extends ChatCompletionsProvider {
+
+    public static final String MODEL = "gpt-4";
+
+    public OpenAiProvider(AiHttpClient httpClient, @Value("${openai.api.key}") List<String> apiKeys) {
+        super(httpClient, "https://api.openai.com/v1/chat/completions", "OpenAI", apiKeys);
+    }
+
+    @Override
+    public String getName() {
+        return "OpenAI";
+    }
+
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    protected boolean supportsStreamUsage() {
+        return true;
+    }
+}
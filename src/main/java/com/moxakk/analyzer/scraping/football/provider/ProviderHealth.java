@@ -0,0 +1,178 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import java.util.Arrays;
+
+/**
+ * Latency, error rate and circuit breaker state of one AI provider.
+ * Latency is tracked as an exponentially weighted moving average and as percentiles over a sliding
+ * window of recent calls. The breaker opens after a run of consecutive failures or when the error
+ * rate over the window gets too high; while open, calls are refused until the open period has
+ * passed, after which a single probe call is let through to decide whether to close it again.
+ */
+public class ProviderHealth {
+
+    /**
+     * Circuit breaker state.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final int failureThreshold;
+    private final double errorRateThreshold;
+    private final int minimumCalls;
+    private final long openMs;
+
+    private final long[] latencies;
+    private final boolean[] failures;
+    private int size;
+    private int next;
+
+    private double ewmaMs = Double.NaN;
+    private int consecutiveFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public ProviderHealth(int window, int failureThreshold, double errorRateThreshold, int minimumCalls, long openMs) {
+        this.latencies = new long[window];
+        this.failures = new boolean[window];
+        this.failureThreshold = failureThreshold;
+        this.errorRateThreshold = errorRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openMs = openMs;
+    }
+
+    /**
+     * Asks permission to call the provider.
+     *
+     * @param now The current time in milliseconds
+     * @return true if the call may proceed; the caller must then report its outcome or release it
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN && now - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param latencyMs The call latency in milliseconds
+     */
+    public synchronized void recordSuccess(long latencyMs) {
+        record(latencyMs, false);
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            // The probe succeeded; start over with a clean window
+            state = State.CLOSED;
+            probeInFlight = false;
+            size = 0;
+            next = 0;
+        }
+    }
+
+    /**
+     * Records a failed or timed out call.
+     *
+     * @param latencyMs The call latency in milliseconds
+     * @param now The current time in milliseconds
+     */
+    public synchronized void recordFailure(long latencyMs, long now) {
+        record(latencyMs, true);
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN
+                || consecutiveFailures >= failureThreshold
+                || (size >= minimumCalls && getErrorRate() >= errorRateThreshold)) {
+            state = State.OPEN;
+            openedAt = now;
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Releases a call that was cancelled before it had an outcome.
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether the provider would currently accept a call, without reserving it.
+     *
+     * @param now The current time in milliseconds
+     * @return true if the breaker is closed, or its open period has passed
+     */
+    public synchronized boolean isAvailable(long now) {
+        return state == State.CLOSED
+                || (state == State.OPEN && now - openedAt >= openMs)
+                || (state == State.HALF_OPEN && !probeInFlight);
+    }
+
+    /**
+     * Gets the moving average latency.
+     *
+     * @return The average latency in milliseconds, or NaN before the first call
+     */
+    public synchronized double getEwmaMs() {
+        return ewmaMs;
+    }
+
+    /**
+     * Gets a latency percentile over the window.
+     *
+     * @param percentile The percentile, from 0 to 1
+     * @return The latency in milliseconds, or NaN before the first call
+     */
+    public synchronized double getLatencyPercentile(double percentile) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+
+    /**
+     * Gets the share of failed calls over the window.
+     *
+     * @return The error rate, from 0 to 1
+     */
+    public synchronized double getErrorRate() {
+        if (size == 0) {
+            return 0;
+        }
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            if (failures[i]) {
+                failed++;
+            }
+        }
+        return (double) failed / size;
+    }
+
+    private void record(long latencyMs, boolean failed) {
+        ewmaMs = Double.isNaN(ewmaMs) ? latencyMs : EWMA_ALPHA * latencyMs + (1 - EWMA_ALPHA) * ewmaMs;
+        latencies[next] = latencyMs;
+        failures[next] = failed;
+        next = (next + 1) % latencies.length;
+        size = Math.min(size + 1, latencies.length);
+    }
+}
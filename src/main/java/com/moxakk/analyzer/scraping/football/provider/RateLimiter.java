@@ -0,0 +1,166 @@
+package com.moxakk.analyzer.scraping.football.provider;
+
+import com.moxakk.analyzer.scraping.football.exception.RateLimitExceededException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter for one AI provider, covering both requests and LLM tokens per minute.
+ * Each call reserves one request and its estimated tokens up front; the buckets may go into debt,
+ * and the call then waits until the debt has been refilled. Because every reservation adds to the
+ * debt, calls are granted in the order they arrived. Waiting is a timer, not a blocked thread.
+ * Calls are rejected rather than queued when too many are already waiting or the wait would be
+ * longer than the maximum.
+ */
+public class RateLimiter {
+
+    private final String provider;
+    private final Bucket requests;
+    private final Bucket tokens;
+    private final int completionTokens;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private int waiting;
+
+    public RateLimiter(String provider, Integer requestsPerMinute, Integer tokensPerMinute, int completionTokens,
+                       int maxQueue, Duration maxWait) {
+        this.provider = provider;
+        this.requests = Bucket.perMinute(requestsPerMinute);
+        this.tokens = Bucket.perMinute(tokensPerMinute);
+        this.completionTokens = completionTokens;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Waits for permission to make one call. The call's prompt tokens are reserved along with a
+     * fixed allowance for its completion, which is corrected by {@link #recordCompletion(int)}.
+     *
+     * @param promptTokens The tokens in the call's prompt
+     * @return A mono that completes when the call may be made, or signals
+     *         {@link RateLimitExceededException} if it cannot be scheduled
+     */
+    public Mono<Void> acquire(int promptTokens) {
+        long estimatedTokens = (long) promptTokens + completionTokens;
+        return Mono.defer(() -> {
+            long waitNanos = reserve(estimatedTokens);
+            if (waitNanos == 0) {
+                return Mono.empty();
+            }
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .then()
+                    .doFinally(signal -> dequeue(signal == SignalType.CANCEL, estimatedTokens));
+        });
+    }
+
+    /**
+     * Corrects the token reservation of a finished call once its completion length is known.
+     *
+     * @param actualCompletionTokens The tokens in the completion
+     */
+    public synchronized void recordCompletion(int actualCompletionTokens) {
+        if (tokens != null) {
+            tokens.refill(System.nanoTime());
+            tokens.available = Math.min(tokens.available - (actualCompletionTokens - completionTokens), tokens.capacity);
+        }
+    }
+
+    /**
+     * Holds back all calls for a period, after the provider reported that its limit was reached.
+     *
+     * @param pause How long the provider asked us to wait
+     */
+    public synchronized void backOff(Duration pause) {
+        if (requests != null) {
+            requests.refill(System.nanoTime());
+            requests.available = Math.min(requests.available, -requests.perNano * pause.toNanos());
+        }
+    }
+
+    /**
+     * Gets the number of calls currently waiting for their turn.
+     *
+     * @return The queue length
+     */
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+    private synchronized long reserve(long estimatedTokens) {
+        long now = System.nanoTime();
+        long waitNanos = Math.max(waitFor(requests, 1, now), waitFor(tokens, estimatedTokens, now));
+        if (waitNanos > 0 && (waiting >= maxQueue || waitNanos > maxWaitNanos)) {
+            throw new RateLimitExceededException(String.format("%s rate limit reached: %d calls waiting, next slot in %dms",
+                    provider, waiting, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+        }
+
+        if (requests != null) {
+            requests.available -= 1;
+        }
+        if (tokens != null) {
+            tokens.available -= estimatedTokens;
+        }
+        if (waitNanos > 0) {
+            waiting++;
+        }
+        return waitNanos;
+    }
+
+    private synchronized void dequeue(boolean cancelled, long estimatedTokens) {
+        waiting--;
+        if (cancelled) {
+            // The call will not be made; give its reservation back
+            if (requests != null) {
+                requests.available = Math.min(requests.available + 1, requests.capacity);
+            }
+            if (tokens != null) {
+                tokens.available = Math.min(tokens.available + estimatedTokens, tokens.capacity);
+            }
+        }
+    }
+
+    private static long waitFor(Bucket bucket, long amount, long now) {
+        if (bucket == null) {
+            return 0;
+        }
+        bucket.refill(now);
+        // A call larger than the whole bucket may go once the bucket is full
+        double needed = Math.min(amount, bucket.capacity);
+        if (bucket.available >= needed) {
+            return 0;
+        }
+        return (long) Math.ceil((needed - bucket.available) / bucket.perNano);
+    }
+
+    /**
+     * One refilling budget. Accessed only while holding the limiter's lock.
+     */
+    private static final class Bucket {
+        private final double capacity;
+        private final double perNano;
+        private double available;
+        private long refilledAt;
+
+        private Bucket(double capacity, double perNano) {
+            this.capacity = capacity;
+            this.perNano = perNano;
+            this.available = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        static Bucket perMinute(Integer limit) {
+            if (limit == null || limit <= 0) {
+                return null;
+            }
+            return new Bucket(limit, limit / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+
+        void refill(long now) {
+            available = Math.min(capacity, available + (now - refilledAt) * perNano);
+            refilledAt = now;
+        }
+    }
+}
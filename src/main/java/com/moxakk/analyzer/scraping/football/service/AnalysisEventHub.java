@@ -0,0 +1,301 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.ProviderCommentary;
+import com.moxakk.analyzer.scraping.football.util.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Fans out analysis job progress to Server-Sent Event subscribers.
+ * Every event published for a job is kept until the job's channel expires, so a client that
+ * subscribes late receives the events it missed before the live ones.
+ * Publishing never waits for a subscriber: events are queued per job and sent in order on a
+ * dedicated executor, so a slow client cannot stall the thread that published the event, such as
+ * the HTTP client thread delivering a provider's stream. Streamed tokens are only produced while a
+ * job has subscribers, and are dropped rather than queued without bound when its clients fall behind.
+ */
+@Service
+public class AnalysisEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisEventHub.class);
+
+    public static final String EVENT_STATUS = "status";
+    public static final String EVENT_SECTION = "section";
+    public static final String EVENT_COMMENTARY = "commentary";
+    public static final String EVENT_TOKEN = "token";
+    public static final String EVENT_COMPLETE = "complete";
+    public static final String EVENT_FAILED = "failed";
+
+    private final ExpiringCache<String, Channel> channels;
+    private final long emitterTimeoutMs;
+    private final Executor eventExecutor;
+    private final int maxPendingTokens;
+
+    public AnalysisEventHub(@Value("${football.jobs.events.retention-minutes:30}") long retentionMinutes,
+                            @Value("${football.jobs.events.max-channels:1000}") int maxChannels,
+                            @Value("${football.jobs.events.emitter-timeout-seconds:300}") long emitterTimeoutSeconds,
+                            @Value("${football.jobs.events.max-pending-tokens:1000}") int maxPendingTokens,
+                            @Qualifier("eventExecutor") Executor eventExecutor) {
+        this.channels = new ExpiringCache<>(Duration.ofMinutes(retentionMinutes), maxChannels);
+        this.emitterTimeoutMs = Duration.ofSeconds(emitterTimeoutSeconds).toMillis();
+        this.maxPendingTokens = maxPendingTokens;
+        this.eventExecutor = eventExecutor;
+    }
+
+    /**
+     * Opens the event channel for a job. Must be called before the job starts publishing.
+     *
+     * @param jobId The job ID
+     */
+    public void open(String jobId) {
+        channels.put(jobId, new Channel(jobId));
+    }
+
+    /**
+     * Publishes an event to all current and future subscribers of a job.
+     *
+     * @param jobId The job ID
+     * @param name The event name
+     * @param data The event payload, serialized as JSON
+     */
+    public void publish(String jobId, String name, Object data) {
+        Channel channel = channels.get(jobId);
+        if (channel != null) {
+            channel.publish(new Event(name, data), true);
+        }
+    }
+
+    /**
+     * Checks whether anyone is currently subscribed to a job's events.
+     *
+     * @param jobId The job ID
+     * @return true if the job's channel has at least one subscriber
+     */
+    public boolean hasSubscribers(String jobId) {
+        Channel channel = channels.get(jobId);
+        return channel != null && channel.hasSubscribers();
+    }
+
+    /**
+     * Publishes an event to current subscribers only. Used for high-volume events, such as
+     * streamed tokens, whose content is also delivered by a later retained event. The event is
+     * dropped if the job's subscribers are already too far behind.
+     *
+     * @param jobId The job ID
+     * @param name The event name
+     * @param data The event payload, serialized as JSON
+     */
+    public void publishTransient(String jobId, String name, Object data) {
+        Channel channel = channels.get(jobId);
+        if (channel != null) {
+            channel.publish(new Event(name, data), false);
+        }
+    }
+
+    /**
+     * Publishes a final event and completes all subscribers of a job.
+     *
+     * @param jobId The job ID
+     * @param name The final event name
+     * @param data The event payload, serialized as JSON
+     */
+    public void close(String jobId, String name, Object data) {
+        Channel channel = channels.get(jobId);
+        if (channel != null) {
+            channel.close(new Event(name, data));
+        }
+    }
+
+    /**
+     * Creates a progress listener that publishes sections and commentary for a job.
+     *
+     * @param jobId The job ID
+     * @return A listener bound to the job's channel
+     */
+    public AnalysisProgressListener listenerFor(String jobId) {
+        return new AnalysisProgressListener() {
+            @Override
+            public void onSection(String section, Object value) {
+                publish(jobId, EVENT_SECTION, Map.of("section", section, "data", value));
+            }
+
+            @Override
+            public void onCommentary(ProviderCommentary commentary) {
+                publish(jobId, EVENT_COMMENTARY, commentary);
+            }
+
+            @Override
+            public void onToken(String provider, String token) {
+                publishTransient(jobId, EVENT_TOKEN, Map.of("provider", provider, "text", token));
+            }
+
+            @Override
+            public boolean wantsTokens() {
+                return hasSubscribers(jobId);
+            }
+        };
+    }
+
+    /**
+     * Subscribes to a job's events. Events already published are replayed first.
+     *
+     * @param jobId The job ID
+     * @return An emitter, or null if the job has no open or retained channel
+     */
+    public SseEmitter subscribe(String jobId) {
+        Channel channel = channels.get(jobId);
+        if (channel == null) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        channel.subscribe(emitter);
+        return emitter;
+    }
+
+    /**
+     * Creates an emitter that sends a single final event, for jobs whose channel is no longer retained.
+     *
+     * @param name The event name
+     * @param data The event payload
+     * @return A completed emitter
+     */
+    public SseEmitter replayFinal(String name, Object data) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        if (send(emitter, new Event(name, data))) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, Event event) {
+        try {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping SSE subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private record Event(String name, Object data) {
+    }
+
+    /**
+     * Event history and subscribers of one job. Publishing and subscribing only record the event or
+     * subscriber and queue its delivery; the queue is drained in order by one task at a time on the
+     * event executor, so a new subscriber sees every event exactly once.
+     */
+    private final class Channel {
+        private final String jobId;
+        private final List<Event> history = new ArrayList<>();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Deque<Runnable> deliveries = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Channel(String jobId) {
+            this.jobId = jobId;
+        }
+
+        boolean hasSubscribers() {
+            return !emitters.isEmpty();
+        }
+
+        synchronized void publish(Event event, boolean retain) {
+            if (closed) {
+                return;
+            }
+            if (retain) {
+                history.add(event);
+            } else if (emitters.isEmpty() || deliveries.size() >= maxPendingTokens) {
+                return;
+            }
+            deliver(() -> emitters.removeIf(emitter -> !send(emitter, event)));
+        }
+
+        synchronized void close(Event event) {
+            if (closed) {
+                return;
+            }
+            publish(event, true);
+            closed = true;
+            deliver(() -> {
+                emitters.forEach(SseEmitter::complete);
+                emitters.clear();
+            });
+        }
+
+        synchronized void subscribe(SseEmitter emitter) {
+            List<Event> replay = List.copyOf(history);
+            boolean finished = closed;
+            emitter.onCompletion(() -> emitters.remove(emitter));
+            emitter.onTimeout(() -> emitters.remove(emitter));
+            deliver(() -> {
+                for (Event event : replay) {
+                    if (!send(emitter, event)) {
+                        return;
+                    }
+                }
+                if (finished) {
+                    emitter.complete();
+                    return;
+                }
+                emitters.add(emitter);
+            });
+        }
+
+        /**
+         * Queues a delivery and starts draining the queue unless a drain is already running.
+         * Must be called while holding the channel's lock.
+         */
+        private void deliver(Runnable delivery) {
+            deliveries.add(delivery);
+            if (draining) {
+                return;
+            }
+            draining = true;
+            try {
+                eventExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Event delivery for job {} rejected: {}", jobId, e.getMessage());
+                deliveries.clear();
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable delivery;
+                synchronized (this) {
+                    delivery = deliveries.poll();
+                    if (delivery == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    delivery.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Error delivering events for job {}: {}", jobId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.model.AnalysisJob;
+import com.moxakk.analyzer.scraping.football.model.CommentaryOptions;
+import com.moxakk.analyzer.scraping.football.model.Fixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs match analyses as background jobs.
+ * Submitting a job returns immediately with its ID; the analysis runs on a dedicated worker pool
+ * and its state is persisted in the analysis_jobs table, so clients can poll for the result and
+ * unfinished jobs are resumed after a restart. Finished jobs are deleted after the retention period.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final FootballScrapingService footballScrapingService;
+    private final Executor analysisJobExecutor;
+    private final MeterRegistry meterRegistry;
+    private final AnalysisEventHub analysisEventHub;
+    private final Duration retention;
+    private final Map<String, CompletableFuture<Map<String, Object>>> completions = new ConcurrentHashMap<>();
+
+    private final RowMapper<AnalysisJob> jobRowMapper = (rs, rowNum) -> {
+        AnalysisJob job = new AnalysisJob();
+        job.setId(rs.getString("id"));
+        job.setHomeTeam(rs.getString("home_team"));
+        job.setAwayTeam(rs.getString("away_team"));
+        job.setQuorum((Integer) rs.getObject("quorum"));
+        job.setDeadlineMs((Long) rs.getObject("deadline_ms"));
+        job.setProviderCount((Integer) rs.getObject("provider_count"));
+        job.setStatus(AnalysisJob.Status.valueOf(rs.getString("status")));
+        job.setResult(rs.getString("result"));
+        job.setError(rs.getString("error"));
+        job.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        job.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+        return job;
+    };
+
+    @Autowired
+    public AnalysisJobService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, FootballScrapingService footballScrapingService,
+                              @Qualifier("analysisJobExecutor") Executor analysisJobExecutor, MeterRegistry meterRegistry,
+                              AnalysisEventHub analysisEventHub,
+                              @Value("${football.jobs.retention.hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.footballScrapingService = footballScrapingService;
+        this.analysisJobExecutor = analysisJobExecutor;
+        this.meterRegistry = meterRegistry;
+        this.analysisEventHub = analysisEventHub;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Creates the jobs table if it does not exist.
+     */
+    @PostConstruct
+    public void initialize() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS analysis_jobs (" +
+                    "id VARCHAR(36) PRIMARY KEY, " +
+                    "home_team VARCHAR(255) NOT NULL, " +
+                    "away_team VARCHAR(255) NOT NULL, " +
+                    "quorum INTEGER, " +
+                    "deadline_ms BIGINT, " +
+                    "provider_count INTEGER, " +
+                    "status VARCHAR(16) NOT NULL, " +
+                    "result TEXT, " +
+                    "error TEXT, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL)");
+            jdbcTemplate.execute("ALTER TABLE analysis_jobs ADD COLUMN IF NOT EXISTS provider_count INTEGER");
+        } catch (Exception e) {
+            logger.error("Error creating analysis_jobs table: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resubmits jobs that were pending or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        try {
+            List<String> jobIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM analysis_jobs WHERE status IN (?, ?) ORDER BY created_at",
+                    String.class,
+                    AnalysisJob.Status.PENDING.name(), AnalysisJob.Status.RUNNING.name()
+            );
+            if (!jobIds.isEmpty()) {
+                logger.info("Resuming {} unfinished analysis jobs", jobIds.size());
+            }
+            for (String jobId : jobIds) {
+                updateStatus(jobId, AnalysisJob.Status.PENDING, null, null);
+                analysisEventHub.open(jobId);
+                schedule(jobId);
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming analysis jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Submits a match analysis.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param options The quorum, soft deadline and provider count for commentary generation
+     * @return The pending job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public AnalysisJob submit(String homeTeam, String awayTeam, CommentaryOptions options) {
+        return enqueue(homeTeam, awayTeam, options, null);
+    }
+
+    /**
+     * Submits a match analysis and returns a future for its result, for callers that need the
+     * analysis in-process rather than through polling.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param options The quorum, soft deadline and provider count for commentary generation
+     * @return A future completed with the match data and commentary
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public CompletableFuture<Map<String, Object>> submitAndAwait(String homeTeam, String awayTeam, CommentaryOptions options) {
+        CompletableFuture<Map<String, Object>> completion = new CompletableFuture<>();
+        enqueue(homeTeam, awayTeam, options, completion);
+        return completion;
+    }
+
+    /**
+     * Runs a batch analysis of several fixtures on the job worker pool. Batch runs are not
+     * persisted as jobs; the caller receives the result through the returned future.
+     *
+     * @param fixtures The fixtures to analyze
+     * @return A future completed with one entry per fixture
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public CompletableFuture<List<Map<String, Object>>> runBatch(List<Fixture> fixtures) {
+        meterRegistry.counter("football.jobs.batches").increment();
+        return CompletableFuture.supplyAsync(() -> footballScrapingService.analyzeFixturesAndGenerateCommentary(fixtures), analysisJobExecutor);
+    }
+
+    /**
+     * Deletes finished jobs that have not changed for longer than the retention period, so the
+     * table does not grow without bound. Unfinished jobs are kept so they can be resumed.
+     */
+    @Scheduled(fixedDelayString = "${football.jobs.retention.sweep-interval-ms:3600000}",
+            initialDelayString = "${football.jobs.retention.sweep-interval-ms:3600000}")
+    public void deleteExpiredJobs() {
+        try {
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM analysis_jobs WHERE status IN (?, ?) AND updated_at < ?",
+                    AnalysisJob.Status.COMPLETED.name(), AnalysisJob.Status.FAILED.name(),
+                    Timestamp.from(Instant.now().minus(retention))
+            );
+            if (deleted > 0) {
+                meterRegistry.counter("football.jobs.deleted").increment(deleted);
+                logger.info("Deleted {} finished analysis jobs older than {}h", deleted, retention.toHours());
+            }
+        } catch (Exception e) {
+            logger.error("Error deleting expired analysis jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets a job by ID.
+     *
+     * @param jobId The job ID
+     * @return The job, or empty if no job has this ID
+     */
+    public Optional<AnalysisJob> getJob(String jobId) {
+        List<AnalysisJob> jobs = jdbcTemplate.query("SELECT * FROM analysis_jobs WHERE id = ?", jobRowMapper, jobId);
+        return jobs.stream().findFirst();
+    }
+
+    private AnalysisJob enqueue(String homeTeam, String awayTeam, CommentaryOptions options,
+                                CompletableFuture<Map<String, Object>> completion) {
+        Instant now = Instant.now();
+        AnalysisJob job = new AnalysisJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setHomeTeam(homeTeam);
+        job.setAwayTeam(awayTeam);
+        job.setQuorum(options.getQuorum());
+        job.setDeadlineMs(options.getDeadlineMs());
+        job.setProviderCount(options.getProviders());
+        job.setStatus(AnalysisJob.Status.PENDING);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+
+        jdbcTemplate.update(
+                "INSERT INTO analysis_jobs (id, home_team, away_team, quorum, deadline_ms, provider_count, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                job.getId(), homeTeam, awayTeam, job.getQuorum(), job.getDeadlineMs(), job.getProviderCount(), job.getStatus().name(),
+                Timestamp.from(now), Timestamp.from(now)
+        );
+
+        if (completion != null) {
+            completions.put(job.getId(), completion);
+        }
+        analysisEventHub.open(job.getId());
+        schedule(job.getId());
+        meterRegistry.counter("football.jobs.submitted").increment();
+        logger.info("Submitted analysis job {}", job);
+        return job;
+    }
+
+    private void schedule(String jobId) {
+        try {
+            analysisJobExecutor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("football.jobs.rejected").increment();
+            fail(jobId, "Analysis queue is full, try again later");
+            CompletableFuture<Map<String, Object>> completion = completions.remove(jobId);
+            if (completion != null) {
+                completion.completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a job, making sure an in-process caller waiting for it is always answered, also when the
+     * job cannot be loaded or its outcome cannot be recorded.
+     *
+     * @param jobId The job ID
+     */
+    private void run(String jobId) {
+        try {
+            process(jobId);
+        } catch (RuntimeException e) {
+            logger.error("Analysis job {} could not be run: {}", jobId, e.getMessage(), e);
+            CompletableFuture<Map<String, Object>> completion = completions.remove(jobId);
+            if (completion != null) {
+                completion.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a job and records its outcome.
+     *
+     * @param jobId The job ID
+     */
+    private void process(String jobId) {
+        Optional<AnalysisJob> found = getJob(jobId);
+        if (found.isEmpty() || found.get().getStatus().isFinished()) {
+            CompletableFuture<Map<String, Object>> completion = completions.remove(jobId);
+            if (completion != null) {
+                completion.completeExceptionally(new IllegalStateException("Analysis job " + jobId + " is no longer pending"));
+            }
+            return;
+        }
+
+        AnalysisJob job = found.get();
+        updateStatus(jobId, AnalysisJob.Status.RUNNING, null, null);
+        analysisEventHub.publish(jobId, AnalysisEventHub.EVENT_STATUS, Map.of("status", AnalysisJob.Status.RUNNING));
+
+        try {
+            Map<String, Object> result = footballScrapingService.analyzeMatchAndGenerateCommentary(
+                    job.getHomeTeam(), job.getAwayTeam(), job.getOptions(), analysisEventHub.listenerFor(jobId));
+            updateStatus(jobId, AnalysisJob.Status.COMPLETED, objectMapper.writeValueAsString(result), null);
+            meterRegistry.counter("football.jobs.finished", "status", AnalysisJob.Status.COMPLETED.name()).increment();
+            analysisEventHub.close(jobId, AnalysisEventHub.EVENT_COMPLETE, result);
+
+            CompletableFuture<Map<String, Object>> completion = completions.remove(jobId);
+            if (completion != null) {
+                completion.complete(result);
+            }
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed: {}", jobId, e.getMessage(), e);
+            fail(jobId, e.getMessage());
+
+            CompletableFuture<Map<String, Object>> completion = completions.remove(jobId);
+            if (completion != null) {
+                completion.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void fail(String jobId, String error) {
+        updateStatus(jobId, AnalysisJob.Status.FAILED, null, error);
+        meterRegistry.counter("football.jobs.finished", "status", AnalysisJob.Status.FAILED.name()).increment();
+        analysisEventHub.close(jobId, AnalysisEventHub.EVENT_FAILED, Map.of("error", String.valueOf(error)));
+    }
+
+    private void updateStatus(String jobId, AnalysisJob.Status status, String result, String error) {
+        jdbcTemplate.update(
+                "UPDATE analysis_jobs SET status = ?, result = ?, error = ?, updated_at = ? WHERE id = ?",
+                status.name(), result, error, Timestamp.from(Instant.now()), jobId
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.ProviderCommentary;
+
+/**
+ * Receives partial results of a match analysis as they become available.
+ * Callbacks may be invoked concurrently from scrape and AI worker threads.
+ */
+public interface AnalysisProgressListener {
+
+    /**
+     * Listener that ignores all progress.
+     */
+    AnalysisProgressListener NONE = new AnalysisProgressListener() {
+    };
+
+    /**
+     * Called when a match data section has been scraped.
+     *
+     * @param section The section name, matching the MatchData property
+     * @param value The section value
+     */
+    default void onSection(String section, Object value) {
+    }
+
+    /**
+     * Called when an AI provider has finished, successfully or not.
+     *
+     * @param commentary The provider's commentary and status
+     */
+    default void onCommentary(ProviderCommentary commentary) {
+    }
+
+    /**
+     * Called for each text fragment of a provider's commentary while it is being streamed.
+     * The complete commentary is still delivered through {@link #onCommentary(ProviderCommentary)}.
+     *
+     * @param provider The provider name
+     * @param token The text fragment
+     */
+    default void onToken(String provider, String token) {
+    }
+
+    /**
+     * Tells whether anyone will consume {@link #onToken(String, String)} callbacks. Providers are
+     * only asked to stream their responses when this is true.
+     *
+     * @return true if streamed tokens are wanted
+     */
+    default boolean wantsTokens() {
+        return false;
+    }
+}
@@ -1,14 +1,41 @@
 package com.moxakk.analyzer.scraping.football.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.exception.RateLimitExceededException;
 import com.moxakk.analyzer.scraping.football.model.*;
+import com.moxakk.analyzer.scraping.football.provider.AiProvider;
+import com.moxakk.analyzer.scraping.football.provider.AiProviderRegistry;
+import com.moxakk.analyzer.scraping.football.provider.Completion;
+import com.moxakk.analyzer.scraping.football.provider.RateLimiter;
+import com.moxakk.analyzer.scraping.football.util.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Service for generating commentary for football matches.
@@ -18,258 +45,613 @@ public class FootballCommentaryService {
 
     private static final Logger logger = LoggerFactory.getLogger(FootballCommentaryService.class);
 
-    private final AIService aiService;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private static final String CASCADE_ACCEPTED = "accepted";
+    private static final String CASCADE_LOW_CONFIDENCE = "low_confidence";
+    private static final String CASCADE_INVALID = "invalid";
+    private static final String CASCADE_UNAVAILABLE = "unavailable";
+    private static final List<String> PERCENTAGE_FIELDS = List.of(
+            "homeTeamWinPercentage", "awayTeamWinPercentage", "drawPercentage", "predictionConfidence");
+
+    private final AiProviderRegistry providerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final LlmResponseCache llmResponseCache;
+    private final MatchPromptEncoder matchPromptEncoder;
+    private final ObjectMapper objectMapper;
+
+    @Value("${football.commentary.provider-timeout-seconds:45}")
+    private long providerTimeoutSeconds;
+
+    @Value("${football.commentary.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    @Value("${football.commentary.batch.size:5}")
+    private int batchSize;
+
+    @Value("${football.commentary.cascade.enabled:false}")
+    private boolean cascadeEnabled;
+
+    @Value("${football.commentary.cascade.min-confidence:70}")
+    private double cascadeMinConfidence;
 
     @Autowired
-    public FootballCommentaryService(AIService aiService) {
-        this.aiService = aiService;
+    public FootballCommentaryService(AiProviderRegistry providerRegistry, MeterRegistry meterRegistry, LlmResponseCache llmResponseCache,
+                                     MatchPromptEncoder matchPromptEncoder, ObjectMapper objectMapper) {
+        this.providerRegistry = providerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.llmResponseCache = llmResponseCache;
+        this.matchPromptEncoder = matchPromptEncoder;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Generates commentary for a football match, waiting for every provider.
+     *
+     * @param data The match data
+     * @return Commentary from each AI provider, in provider order
+     */
+    public List<ProviderCommentary> generateCommentary(MatchData data) {
+        return generateCommentary(data, CommentaryOptions.defaults());
     }
 
     /**
      * Generates commentary for a football match.
+     * All providers are called at the same time, each with its own timeout, so the total latency is
+     * that of the slowest provider. Providers that fail or time out are reported with their status
+     * instead of failing the whole request. When a quorum is set, commentary is returned as soon as
+     * that many providers have answered successfully; when a soft deadline is set, whatever has
+     * arrived by then is returned. Providers that are still running are reported as skipped and
+     * their requests are cancelled. Providers whose circuit breaker is open are not called and are
+     * reported as such, and when a provider count is set only the fastest healthy providers are called.
+     * In cascade mode a fast model answers first, and the providers are only called when its answer
+     * is not valid JSON or its prediction confidence is below the threshold.
      *
      * @param data The match data
-     * @return List of commentary responses from different AI providers
+     * @param options The quorum, soft deadline and provider count to apply
+     * @return Commentary from each AI provider, in provider order
      */
-    public List<Object> generateCommentary(MatchData data) {
-        String prompt = generatePrompt(data);
+    public List<ProviderCommentary> generateCommentary(MatchData data, CommentaryOptions options) {
+        return generateCommentary(data, options, AnalysisProgressListener.NONE);
+    }
 
+    /**
+     * Generates commentary for a football match, reporting each provider's commentary to the
+     * listener as soon as it arrives.
+     *
+     * @param data The match data
+     * @param options The quorum, soft deadline and provider count to apply
+     * @param listener Receives each provider's commentary
+     * @return Commentary from each AI provider, in provider order
+     * @see #generateCommentary(MatchData, CommentaryOptions)
+     */
+    public List<ProviderCommentary> generateCommentary(MatchData data, CommentaryOptions options, AnalysisProgressListener listener) {
+        return generateCommentaryAsync(data, options, listener).block();
+    }
+
+    /**
+     * Generates commentary for a football match without blocking.
+     * Provider calls are non-blocking HTTP requests merged into one stream, so no thread is held
+     * while they are in flight. Once the quorum is reached or the soft deadline passes, the calls
+     * still running are cancelled and reported as skipped.
+     *
+     * @param data The match data
+     * @param options The quorum, soft deadline and provider count to apply
+     * @param listener Receives each provider's commentary and streamed tokens
+     * @return Commentary from each AI provider, in provider order
+     * @see #generateCommentary(MatchData, CommentaryOptions)
+     */
+    public Mono<List<ProviderCommentary>> generateCommentaryAsync(MatchData data, CommentaryOptions options, AnalysisProgressListener listener) {
+        Prompt prompt = matchPromptEncoder.encode(data);
+        List<AiProvider> fastProviders = cascadeEnabled ? providerRegistry.routeFast() : List.of();
+        if (fastProviders.isEmpty()) {
+            return fanOut(prompt, options, listener);
+        }
+        return cascade(fastProviders, prompt, options, listener);
+    }
+
+    /**
+     * Asks the fast providers first, one at a time until one answers, and escalates to the regular
+     * providers only when that answer is missing, fails validation or is not confident enough.
+     * The fast commentary is always returned, ahead of any escalated commentary.
+     *
+     * @param fastProviders The fast providers, in the order to try them
+     * @param prompt The prompt to send
+     * @param options The quorum, soft deadline and provider count to apply when escalating
+     * @param listener Receives each provider's commentary and streamed tokens
+     * @return Commentary from the fast provider, followed by the regular providers' if escalated
+     */
+    private Mono<List<ProviderCommentary>> cascade(List<AiProvider> fastProviders, Prompt prompt, CommentaryOptions options,
+                                                   AnalysisProgressListener listener) {
+        return Flux.fromIterable(fastProviders)
+                .concatMap(provider -> callProvider(provider, prompt, listener))
+                .doOnNext(commentary -> notifyListener(listener, commentary))
+                .takeUntil(commentary -> commentary.getStatus() == ProviderCommentary.Status.SUCCESS)
+                .collectList()
+                .flatMap(fastCommentary -> {
+                    ProviderCommentary answer = fastCommentary.get(fastCommentary.size() - 1);
+                    String outcome = evaluate(answer);
+                    meterRegistry.counter("football.commentary.cascade", "outcome", outcome).increment();
+                    if (CASCADE_ACCEPTED.equals(outcome)) {
+                        return Mono.just(fastCommentary);
+                    }
+
+                    logger.info("Escalating commentary from {} to the full providers: {}", answer.getProvider(), outcome);
+                    return fanOut(prompt, options, listener).map(escalated -> {
+                        List<ProviderCommentary> all = new ArrayList<>(fastCommentary);
+                        all.addAll(escalated);
+                        return all;
+                    });
+                });
+    }
+
+    /**
+     * Decides whether a fast provider's answer can be returned without escalation. The answer must
+     * be a JSON object with the requested percentages in range, a predicted score and a comment,
+     * and its predictionConfidence must reach the configured minimum.
+     *
+     * @param commentary The fast provider's commentary
+     * @return The cascade outcome used in metrics and logs
+     */
+    private String evaluate(ProviderCommentary commentary) {
+        if (commentary.getStatus() != ProviderCommentary.Status.SUCCESS) {
+            return CASCADE_UNAVAILABLE;
+        }
+
+        JsonNode prediction = parseJson(commentary.getCommentary(), '{', '}');
+        if (!isValidPrediction(prediction)) {
+            return CASCADE_INVALID;
+        }
+        return prediction.path("predictionConfidence").asDouble() >= cascadeMinConfidence ? CASCADE_ACCEPTED : CASCADE_LOW_CONFIDENCE;
+    }
+
+    /**
+     * Checks that a prediction is an object with the requested percentages in range, home, draw
+     * and away adding up to about 100, a predicted score and a comment.
+     *
+     * @param prediction The parsed prediction, or null
+     * @return true if the prediction is usable
+     */
+    private static boolean isValidPrediction(JsonNode prediction) {
+        if (prediction == null || !prediction.isObject()
+                || PERCENTAGE_FIELDS.stream().anyMatch(field -> !isPercentage(prediction.path(field)))
+                || !prediction.path("predictedScore").path("home").isNumber()
+                || !prediction.path("predictedScore").path("away").isNumber()
+                || !prediction.path("briefComment").isTextual()) {
+            return false;
+        }
+
+        double outcomes = prediction.path("homeTeamWinPercentage").asDouble()
+                + prediction.path("awayTeamWinPercentage").asDouble()
+                + prediction.path("drawPercentage").asDouble();
+        return Math.abs(outcomes - 100) <= 5;
+    }
+
+    /**
+     * Parses the JSON value in a model's answer. Models sometimes wrap it in a code fence or a
+     * sentence despite the instructions, so the text between the first opening and the last
+     * closing bracket is parsed.
+     *
+     * @param text The answer
+     * @param openBracket The bracket the value starts with
+     * @param closeBracket The bracket the value ends with
+     * @return The parsed value, or null if there is none
+     */
+    private JsonNode parseJson(String text, char openBracket, char closeBracket) {
+        if (text == null) {
+            return null;
+        }
+        int open = text.indexOf(openBracket);
+        int close = text.lastIndexOf(closeBracket);
+        if (open < 0 || close < open) {
+            return null;
+        }
         try {
-            List<Object> responses = new ArrayList<>();
-
-            // Get responses from different AI providers
-            responses.add(aiService.getGeminiResponse(prompt));
-            responses.add(aiService.getOpenAIResponse(prompt));
-            responses.add(aiService.getCohereResponse(prompt));
-            responses.add(aiService.getAnthropicResponse(prompt));
-            responses.add(aiService.getMistralResponse(prompt));
-
-            return responses;
-        } catch (Exception e) {
-            logger.error("Error generating commentary: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate commentary: " + e.getMessage(), e);
+            return objectMapper.readTree(text.substring(open, close + 1));
+        } catch (JsonProcessingException e) {
+            return null;
         }
     }
 
+    private static boolean isPercentage(JsonNode node) {
+        return node.isNumber() && node.asDouble() >= 0 && node.asDouble() <= 100;
+    }
+
     /**
-     * Generates a prompt for the AI model based on match data.
+     * Generates commentary for several matches with as few provider calls as possible.
+     * Matches are packed into batches, and each provider is asked for one JSON array of predictions
+     * per batch, so the instructions are sent once per batch instead of once per match. Predictions
+     * that are missing from the answer or fail validation, and whole batches that failed or timed
+     * out, are retried with one call per match. Providers whose circuit breaker is open or that are
+     * over their rate limit are reported with that status for every match.
      *
-     * @param data The match data
-     * @return Prompt for the AI model
+     * @param matches The match data, with distinct IDs
+     * @return Commentary from each provider by match ID, in match order and provider order
      */
-    private String generatePrompt(MatchData data) {
-        StringBuilder prompt = new StringBuilder();
-
-        // Format unavailable players
-        String homePlayerAvailabilityList = formatList(data.getUnavailablePlayers().get("home"));
-        String awayPlayerAvailabilityList = formatList(data.getUnavailablePlayers().get("away"));
-
-        // Format recent matches
-        String homeMatchResults = formatList(data.getRecentMatches().get("home"));
-        String awayMatchResults = formatList(data.getRecentMatches().get("away"));
-        String betweenMatchResults = formatList(data.getRecentMatches().get("between"));
-
-        // Get standings
-        TeamStanding homeTeamStanding = data.getStandings().getHome();
-        TeamStanding awayTeamStanding = data.getStandings().getAway();
-
-        // Format lineup players
-        String homeLineup = formatLineup(data.getTeamLineups().getHome().getPlayers());
-        String awayLineup = formatLineup(data.getTeamLineups().getAway().getPlayers());
-
-        // Get formations
-        String homeFormation = data.getTeamLineups().getHome().getFormation() != null ?
-                data.getTeamLineups().getHome().getFormation() : "Unknown";
-        String awayFormation = data.getTeamLineups().getAway().getFormation() != null ?
-                data.getTeamLineups().getAway().getFormation() : "Unknown";
-
-        prompt.append("You are an expert football analyst and prediction model. Based on the provided match data, generate a detailed predictive analysis.\n\n");
-
-        prompt.append("Match Information:\n");
-        prompt.append("- ID: ").append(data.getId()).append("\n");
-        prompt.append("- Teams: ").append(data.getHomeTeam()).append(" vs ").append(data.getAwayTeam()).append("\n\n");
-
-        prompt.append("Team Formations and Lineups:\n");
-        prompt.append(data.getHomeTeam()).append(" (").append(homeFormation).append("):\n");
-        prompt.append(homeLineup).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" (").append(awayFormation).append("):\n");
-        prompt.append(awayLineup).append("\n\n");
-
-        prompt.append("Standings:\n");
-        prompt.append(data.getHomeTeam()).append(" Standings:\n");
-        prompt.append("- Position: ").append(homeTeamStanding.getOverall().getPosition()).append("\n");
-        prompt.append("- Played: ").append(homeTeamStanding.getOverall().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(homeTeamStanding.getOverall().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(homeTeamStanding.getOverall().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(homeTeamStanding.getOverall().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(homeTeamStanding.getOverall().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(homeTeamStanding.getOverall().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(homeTeamStanding.getOverall().getGoalDifference()).append("\n");
-        prompt.append("- Points: ").append(homeTeamStanding.getOverall().getPoints()).append("\n\n");
-
-        prompt.append(data.getHomeTeam()).append(" Home Standings:\n");
-        prompt.append("- Position: ").append(homeTeamStanding.getHomeForm().getPosition()).append("\n");
-        prompt.append("- Played: ").append(homeTeamStanding.getHomeForm().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(homeTeamStanding.getHomeForm().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(homeTeamStanding.getHomeForm().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(homeTeamStanding.getHomeForm().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(homeTeamStanding.getHomeForm().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(homeTeamStanding.getHomeForm().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(homeTeamStanding.getHomeForm().getGoalDifference()).append("\n\n");
-
-        prompt.append(data.getHomeTeam()).append(" Away Standings:\n");
-        prompt.append("- Position: ").append(homeTeamStanding.getAwayForm().getPosition()).append("\n");
-        prompt.append("- Played: ").append(homeTeamStanding.getAwayForm().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(homeTeamStanding.getAwayForm().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(homeTeamStanding.getAwayForm().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(homeTeamStanding.getAwayForm().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(homeTeamStanding.getAwayForm().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(homeTeamStanding.getAwayForm().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(homeTeamStanding.getAwayForm().getGoalDifference()).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" Standings:\n");
-        prompt.append("- Position: ").append(awayTeamStanding.getOverall().getPosition()).append("\n");
-        prompt.append("- Played: ").append(awayTeamStanding.getOverall().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(awayTeamStanding.getOverall().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(awayTeamStanding.getOverall().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(awayTeamStanding.getOverall().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(awayTeamStanding.getOverall().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(awayTeamStanding.getOverall().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(awayTeamStanding.getOverall().getGoalDifference()).append("\n");
-        prompt.append("- Points: ").append(awayTeamStanding.getOverall().getPoints()).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" Home Standings:\n");
-        prompt.append("- Position: ").append(awayTeamStanding.getHomeForm().getPosition()).append("\n");
-        prompt.append("- Played: ").append(awayTeamStanding.getHomeForm().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(awayTeamStanding.getHomeForm().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(awayTeamStanding.getHomeForm().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(awayTeamStanding.getHomeForm().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(awayTeamStanding.getHomeForm().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(awayTeamStanding.getHomeForm().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(awayTeamStanding.getHomeForm().getGoalDifference()).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" Away Standings:\n");
-        prompt.append("- Position: ").append(awayTeamStanding.getAwayForm().getPosition()).append("\n");
-        prompt.append("- Played: ").append(awayTeamStanding.getAwayForm().getPlayed()).append("\n");
-        prompt.append("- Won: ").append(awayTeamStanding.getAwayForm().getWon()).append("\n");
-        prompt.append("- Drawn: ").append(awayTeamStanding.getAwayForm().getDrawn()).append("\n");
-        prompt.append("- Lost: ").append(awayTeamStanding.getAwayForm().getLost()).append("\n");
-        prompt.append("- Goals For: ").append(awayTeamStanding.getAwayForm().getGoalsFor()).append("\n");
-        prompt.append("- Goals Against: ").append(awayTeamStanding.getAwayForm().getGoalsAgainst()).append("\n");
-        prompt.append("- Goal Difference: ").append(awayTeamStanding.getAwayForm().getGoalDifference()).append("\n\n");
-
-        prompt.append("Environmental Conditions:\n");
-        prompt.append("- Temperature: ").append(data.getWeather().getTemperature()).append("°C\n");
-        prompt.append("- Weather: ").append(data.getWeather().getCondition()).append("\n");
-        prompt.append("- Humidity: ").append(data.getWeather().getHumidity()).append("%\n");
-        prompt.append("- Wind Speed: ").append(data.getWeather().getWindSpeed()).append(" km/h\n\n");
-
-        prompt.append("Team Form Analysis:\n");
-        prompt.append(data.getHomeTeam()).append(" Recent Form:\n");
-        prompt.append(homeMatchResults).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" Recent Form:\n");
-        prompt.append(awayMatchResults).append("\n\n");
-
-        prompt.append("Head-to-Head History:\n");
-        prompt.append(betweenMatchResults).append("\n\n");
-
-        prompt.append("Squad Status:\n");
-        prompt.append(data.getHomeTeam()).append(" Unavailable Players:\n");
-        prompt.append(homePlayerAvailabilityList.isEmpty() ? "No reported absences" : homePlayerAvailabilityList).append("\n\n");
-
-        prompt.append(data.getAwayTeam()).append(" Unavailable Players:\n");
-        prompt.append(awayPlayerAvailabilityList.isEmpty() ? "No reported absences" : awayPlayerAvailabilityList).append("\n\n");
-
-        prompt.append(getPromptRequirements());
-
-        logger.info("Generated prompt: {}", prompt);
-
-        return prompt.toString();
+    public Map<String, List<ProviderCommentary>> generateBatchCommentary(List<MatchData> matches) {
+        return generateBatchCommentaryAsync(matches).block();
     }
 
     /**
-     * Formats a list of strings into a single string with each item on a new line.
+     * Generates commentary for several matches without blocking.
+     * Providers are called at the same time; each provider works through its batches in turn.
      *
-     * @param list The list to format
-     * @return Formatted string
+     * @param matches The match data, with distinct IDs
+     * @return Commentary from each provider by match ID, in match order and provider order
+     * @see #generateBatchCommentary(List)
      */
-    private String formatList(List<String> list) {
-        if (list == null || list.isEmpty()) {
-            return "";
+    public Mono<Map<String, List<ProviderCommentary>>> generateBatchCommentaryAsync(List<MatchData> matches) {
+        int size = Math.max(batchSize, 1);
+        List<List<MatchData>> batches = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i += size) {
+            batches.add(matches.subList(i, Math.min(i + size, matches.size())));
         }
+        List<AiProvider> providers = providerRegistry.route(null);
+
+        return Flux.fromIterable(providers)
+                .flatMap(provider -> Flux.fromIterable(batches)
+                        .concatMap(batch -> callBatch(provider, batch))
+                        .collectList()
+                        .map(answers -> {
+                            Map<String, ProviderCommentary> byMatch = new HashMap<>();
+                            answers.forEach(byMatch::putAll);
+                            return Map.entry(provider.getName(), byMatch);
+                        }))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(byProvider -> {
+                    Map<String, List<ProviderCommentary>> result = new LinkedHashMap<>();
+                    for (MatchData match : matches) {
+                        result.put(match.getId(), providers.stream()
+                                .map(provider -> byProvider.get(provider.getName()).get(match.getId()))
+                                .collect(Collectors.toList()));
+                    }
+                    return result;
+                });
+    }
 
-        return String.join("\n", list);
+    /**
+     * Asks a provider for the predictions of one batch and retries the matches it did not answer.
+     *
+     * @param provider The provider to call
+     * @param batch The matches in the batch
+     * @return The provider's commentary by match ID, for every match in the batch
+     */
+    private Mono<Map<String, ProviderCommentary>> callBatch(AiProvider provider, List<MatchData> batch) {
+        if (batch.size() == 1) {
+            return callSingle(provider, batch);
+        }
+
+        Prompt prompt = matchPromptEncoder.encodeBatch(batch);
+        return callProvider(provider, prompt, AnalysisProgressListener.NONE)
+                .flatMap(commentary -> {
+                    ProviderCommentary.Status status = commentary.getStatus();
+                    if (status == ProviderCommentary.Status.CIRCUIT_OPEN || status == ProviderCommentary.Status.RATE_LIMITED) {
+                        Map<String, ProviderCommentary> unavailable = new HashMap<>();
+                        batch.forEach(match -> unavailable.put(match.getId(), commentary));
+                        return Mono.just(unavailable);
+                    }
+
+                    Map<String, ProviderCommentary> answered = status == ProviderCommentary.Status.SUCCESS
+                            ? splitBatch(batch, commentary) : new HashMap<>();
+                    List<MatchData> missing = batch.stream()
+                            .filter(match -> !answered.containsKey(match.getId()))
+                            .collect(Collectors.toList());
+
+                    meterRegistry.counter("football.commentary.batch.fixtures", "provider", provider.getName(), "outcome", "answered")
+                            .increment(answered.size());
+                    if (missing.isEmpty()) {
+                        return Mono.just(answered);
+                    }
+                    meterRegistry.counter("football.commentary.batch.fixtures", "provider", provider.getName(), "outcome", "retried")
+                            .increment(missing.size());
+                    logger.info("{} answered {} of {} batched matches ({}), retrying the rest individually",
+                            provider.getName(), answered.size(), batch.size(), status);
+                    return callSingle(provider, missing).map(retried -> {
+                        answered.putAll(retried);
+                        return answered;
+                    });
+                });
+    }
+
+    private Mono<Map<String, ProviderCommentary>> callSingle(AiProvider provider, List<MatchData> matches) {
+        return Flux.fromIterable(matches)
+                .concatMap(match -> callProvider(provider, matchPromptEncoder.encode(match), AnalysisProgressListener.NONE)
+                        .map(commentary -> Map.entry(match.getId(), commentary)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Splits a batch answer into one commentary per match. Only predictions that pass validation
+     * and carry the ID of a match in the batch are kept. The batch's token counts are divided
+     * across its matches, so the shares add up to the batch total.
+     *
+     * @param batch The matches in the batch
+     * @param commentary The provider's answer for the whole batch
+     * @return Commentary by match ID for the matches that were answered
+     */
+    private Map<String, ProviderCommentary> splitBatch(List<MatchData> batch, ProviderCommentary commentary) {
+        Map<String, ProviderCommentary> answered = new HashMap<>();
+        JsonNode predictions = parseJson(commentary.getCommentary(), '[', ']');
+        if (predictions == null || !predictions.isArray()) {
+            return answered;
+        }
+
+        List<String> ids = batch.stream().map(MatchData::getId).collect(Collectors.toList());
+        for (JsonNode prediction : predictions) {
+            String matchId = prediction.path("matchId").asText(null);
+            int index = matchId != null ? ids.indexOf(matchId) : -1;
+            if (index < 0 || answered.containsKey(matchId) || !isValidPrediction(prediction)) {
+                continue;
+            }
+            ProviderCommentary split = new ProviderCommentary(commentary.getProvider(), ProviderCommentary.Status.SUCCESS,
+                    commentary.getLatencyMs(), prediction.toString(), commentary.isCached());
+            split.setInputTokens(share(commentary.getInputTokens(), index, batch.size()));
+            split.setCachedTokens(share(commentary.getCachedTokens(), index, batch.size()));
+            split.setOutputTokens(share(commentary.getOutputTokens(), index, batch.size()));
+            split.setPromptFormat(commentary.getPromptFormat());
+            split.setPromptTokens(share(commentary.getPromptTokens(), index, batch.size()));
+            split.setBatchSize(batch.size());
+            answered.put(matchId, split);
+        }
+        return answered;
     }
 
     /**
-     * Formats a list of player positions into a single string with each player on a new line.
+     * Gets one match's share of a batch's token count. The remainder goes to the first matches of
+     * the batch, so the shares add up to the total.
      *
-     * @param players The list of player positions to format
-     * @return Formatted string
+     * @param total The token count of the whole batch, or null if not reported
+     * @param index The match's position in the batch
+     * @param parts The number of matches in the batch
+     * @return The match's share, or null if the total was not reported
      */
-    private String formatLineup(List<PlayerPosition> players) {
-        if (players == null || players.isEmpty()) {
-            return "No lineup available";
+    private static Integer share(Integer total, int index, int parts) {
+        if (total == null) {
+            return null;
         }
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    /**
+     * Calls the regular providers at the same time and collects their commentary.
+     *
+     * @param prompt The prompt to send
+     * @param options The quorum, soft deadline and provider count to apply
+     * @param listener Receives each provider's commentary and streamed tokens
+     * @return Commentary from each provider, in provider order
+     */
+    private Mono<List<ProviderCommentary>> fanOut(Prompt prompt, CommentaryOptions options, AnalysisProgressListener listener) {
+        long start = System.nanoTime();
+
+        List<AiProvider> providers = providerRegistry.route(options.getProviders());
+        int quorum = options.getQuorum() != null ? Math.min(options.getQuorum(), providers.size()) : providers.size();
+
+        Map<String, ProviderCommentary> arrived = new ConcurrentHashMap<>();
+        AtomicInteger successful = new AtomicInteger();
+
+        Flux<ProviderCommentary> calls = Flux.merge(providers.stream()
+                        .map(provider -> callProvider(provider, prompt, listener))
+                        .collect(Collectors.toList()))
+                .doOnNext(commentary -> {
+                    arrived.put(commentary.getProvider(), commentary);
+                    notifyListener(listener, commentary);
+                })
+                .takeUntil(commentary -> commentary.getStatus() == ProviderCommentary.Status.SUCCESS
+                        && successful.incrementAndGet() >= quorum);
+        if (options.getDeadlineMs() != null) {
+            calls = calls.take(Duration.ofMillis(options.getDeadlineMs()));
+        }
+
+        return calls.then(Mono.fromSupplier(() -> {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return providers.stream()
+                    .map(provider -> {
+                        ProviderCommentary commentary = arrived.get(provider.getName());
+                        if (commentary != null) {
+                            return commentary;
+                        }
+                        meterRegistry.counter("football.commentary.provider.skipped", "provider", provider.getName()).increment();
+                        return new ProviderCommentary(provider.getName(), ProviderCommentary.Status.SKIPPED, elapsedMs, null);
+                    })
+                    .collect(Collectors.toList());
+        }));
+    }
+
+    private void notifyListener(AnalysisProgressListener listener, ProviderCommentary commentary) {
+        try {
+            listener.onCommentary(commentary);
+        } catch (RuntimeException e) {
+            // A failing listener must not cancel the remaining providers
+            logger.warn("Progress listener failed for {}: {}", commentary.getProvider(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Calls a single provider, answering from the response cache when possible.
+     *
+     * @param provider The provider to call
+     * @param prompt The prompt to send
+     * @param listener Receives streamed tokens
+     * @return A mono that always emits the provider's commentary and status
+     */
+    private Mono<ProviderCommentary> callProvider(AiProvider provider, Prompt prompt, AnalysisProgressListener listener) {
+        long start = System.nanoTime();
+
+        return getResponse(provider, prompt, listener)
+                .map(response -> toCommentary(provider, response, elapsedMs(start)))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.info("Skipping {}, its circuit breaker is open", provider.getName());
+                    return new ProviderCommentary(provider.getName(), ProviderCommentary.Status.CIRCUIT_OPEN, elapsedMs(start), null);
+                }))
+                .onErrorResume(error -> {
+                    long latencyMs = elapsedMs(start);
+                    if (error instanceof RateLimitExceededException || isRateLimited(error)) {
+                        logger.warn("{} call not made: {}", provider.getName(), error.getMessage());
+                        meterRegistry.counter("football.ai.provider.rate.rejected", "provider", provider.getName()).increment();
+                        return Mono.just(new ProviderCommentary(provider.getName(), ProviderCommentary.Status.RATE_LIMITED, latencyMs, null));
+                    }
+                    if (error instanceof TimeoutException) {
+                        logger.warn("{} did not respond within {}s", provider.getName(), providerTimeoutSeconds);
+                        return Mono.just(new ProviderCommentary(provider.getName(), ProviderCommentary.Status.TIMEOUT, latencyMs, null));
+                    }
+                    logger.error("Error getting {} commentary: {}", provider.getName(), error.getMessage());
+                    return Mono.just(new ProviderCommentary(provider.getName(), ProviderCommentary.Status.ERROR, latencyMs, "Error: " + error.getMessage()));
+                })
+                .doOnNext(commentary -> {
+                    commentary.setPromptFormat(prompt.getFormat());
+                    commentary.setPromptTokens(prompt.getEstimatedTokens());
+                    meterRegistry.timer("football.commentary.provider.latency", "provider", provider.getName(),
+                                    "status", commentary.getStatus().name(), "format", String.valueOf(prompt.getFormat()))
+                            .record(commentary.getLatencyMs(), TimeUnit.MILLISECONDS);
+                });
+    }
+
+    /**
+     * Gets a provider's response from the cache, or calls the provider and caches a successful response.
+     * On a cache miss the provider's circuit breaker is consulted first, then the call waits for its
+     * turn under the provider's rate limit, and the outcome and latency of the call are reported back
+     * to the registry; cached responses say nothing about the provider's health and are not recorded,
+     * and neither are calls our own rate limiter or API key pool rejected before they were made.
+     * A call rejected with 429, or with 401/403 while the provider has other API keys, is retried
+     * once. When someone wants streamed tokens and the provider supports it, the response is
+     * streamed and each fragment is relayed to the listener as it arrives. Cache reads and writes go
+     * to the database and therefore run on the bounded elastic scheduler.
+     *
+     * @param provider The provider to call
+     * @param prompt The prompt to send
+     * @param listener Receives streamed tokens
+     * @return The response and whether it came from the cache, or empty if the circuit breaker is open
+     */
+    private Mono<ProviderResponse> getResponse(AiProvider provider, Prompt prompt, AnalysisProgressListener listener) {
+        String name = provider.getName();
+        return Mono.fromCallable(() -> Optional.ofNullable(llmResponseCache.get(name, provider.getModel(), prompt.getText())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        return Mono.just(new ProviderResponse(new Completion(cached.get()), true));
+                    }
+                    if (!providerRegistry.tryAcquire(name)) {
+                        return Mono.empty();
+                    }
+
+                    RateLimiter rateLimiter = providerRegistry.getRateLimiter(name);
+                    AtomicLong callStart = new AtomicLong(System.nanoTime());
+                    return rateLimiter.acquire(TokenEstimator.estimate(prompt.getText()))
+                            .then(Mono.defer(() -> {
+                                callStart.set(System.nanoTime());
+                                return invoke(provider, prompt, listener).timeout(Duration.ofSeconds(providerTimeoutSeconds));
+                            }))
+                            .retryWhen(Retry.max(1)
+                                    .filter(error -> isRateLimited(error)
+                                            || (isKeyRejected(error) && provider.getKeyPool().hasAvailableKey()))
+                                    .doBeforeRetry(signal -> backOff(provider, rateLimiter, signal.failure()))
+                                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                            .doOnNext(completion -> {
+                                providerRegistry.recordSuccess(name, elapsedMs(callStart.get()));
+                                rateLimiter.recordCompletion(completion.getOutputTokens() != null
+                                        ? completion.getOutputTokens() : TokenEstimator.estimate(completion.getText()));
+                            })
+                            .doOnError(error -> {
+                                if (error instanceof RateLimitExceededException || isRateLimited(error)) {
+                                    // Throttling says nothing about the provider's health, whether the provider
+                                    // answered 429 or our rate limiter or key pool refused to make the call
+                                    providerRegistry.release(name);
+                                } else {
+                                    providerRegistry.recordFailure(name, elapsedMs(callStart.get()));
+                                }
+                            })
+                            .doOnCancel(() -> providerRegistry.release(name))
+                            .flatMap(completion -> Mono.fromRunnable(() -> llmResponseCache.put(name, provider.getModel(), prompt.getText(), completion.getText()))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .thenReturn(new ProviderResponse(completion, false)));
+                });
+    }
 
-        StringBuilder lineup = new StringBuilder();
+    /**
+     * Calls a provider once, streaming the response when someone wants the streamed tokens.
+     *
+     * @param provider The provider to call
+     * @param prompt The prompt to send
+     * @param listener Receives streamed tokens
+     * @return The provider's completion
+     */
+    private Mono<Completion> invoke(AiProvider provider, Prompt prompt, AnalysisProgressListener listener) {
+        if (streamingEnabled && provider.supportsStreaming() && listener.wantsTokens()) {
+            return provider.stream(prompt, token -> listener.onToken(provider.getName(), token));
+        }
+        return provider.complete(prompt);
+    }
 
-        for (PlayerPosition player : players) {
-            lineup.append(player.getNumber() != null ? player.getNumber() : "?")
-                  .append(". ")
-                  .append(player.getName() != null ? player.getName() : "Unknown")
-                  .append(" (")
-                  .append(player.getPosition() != null ? player.getPosition() : "Unknown")
-                  .append(")\n");
+    /**
+     * Pauses a provider's rate limiter after the provider answered 429 and none of its other API
+     * keys has budget left, for as long as its Retry-After header asks, so queued calls are not sent
+     * only to be rejected too. While another key is still in rotation, the retry simply uses it.
+     *
+     * @param provider The provider
+     * @param rateLimiter The provider's rate limiter
+     * @param error The error response
+     */
+    private void backOff(AiProvider provider, RateLimiter rateLimiter, Throwable error) {
+        if (!isRateLimited(error) || provider.getKeyPool().hasAvailableKey()) {
+            return;
         }
+        Duration pause = DEFAULT_RETRY_AFTER;
+        String retryAfter = ((WebClientResponseException) error).getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                pause = Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                // HTTP-date form; keep the default pause
+            }
+        }
+        logger.warn("{} is rate limiting us, pausing for {}s", provider.getName(), pause.toSeconds());
+        meterRegistry.counter("football.ai.provider.rate.throttled", "provider", provider.getName()).increment();
+        rateLimiter.backOff(pause);
+    }
+
+    private static boolean isRateLimited(Throwable error) {
+        return error instanceof WebClientResponseException.TooManyRequests;
+    }
+
+    private static boolean isKeyRejected(Throwable error) {
+        return error instanceof WebClientResponseException.Unauthorized || error instanceof WebClientResponseException.Forbidden;
+    }
 
-        return lineup.toString();
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
     }
 
     /**
-     * Gets the prompt requirements for the AI model.
+     * Creates the commentary for a successful response. Token usage is reported for fresh
+     * completions, including how many prompt tokens the provider served from its prompt cache.
      *
-     * @return Prompt requirements
+     * @param provider The provider
+     * @param response The response
+     * @param latencyMs The latency in milliseconds
+     * @return The commentary
      */
-    private String getPromptRequirements() {
-        return "Simulate the match based on the data provided and generate a detailed predictive analysis.\n" +
-               "Analyze all provided data and respond with a single JSON object in exactly this format:\n" +
-               "{\n" +
-               "    \"homeTeamWinPercentage\": number,     // Probability of home team victory (0-100)\n" +
-               "    \"awayTeamWinPercentage\": number,     // Probability of away team victory (0-100)\n" +
-               "    \"drawPercentage\": number,            // Probability of a draw (0-100)\n" +
-               "    \"over2_5Percentage\": number,         // Likelihood of over 2.5 goals\n" +
-               "    \"bothTeamScorePercentage\": number,   // Probability of both teams scoring\n" +
-               "    \"halfTimeWinner\": \"home\" | \"away\" | \"draw\",  // Predicted half-time result\n" +
-               "    \"halfTimeWinnerPercentage\": number,  // Confidence in half-time prediction\n" +
-               "    \"predictedScore\": {\n" +
-               "        \"home\": number,                  // Predicted goals for home team\n" +
-               "        \"away\": number                   // Predicted goals for away team\n" +
-               "    },\n" +
-               "    \"predictionConfidence\": number,      // Overall confidence in prediction\n" +
-               "    \"briefComment\": string              // Analytical comment explaining key factors and prediction rationale\n" +
-               "}\n\n" +
-               "Critical Requirements:\n" +
-               "1. All percentages must be numbers from 0 to 100\n" +
-               "2. Win percentages (home, away, draw) must sum exactly to 100\n" +
-               "3. Brief comment should explain the prediction rationale considering team strengths and formations\n" +
-               "4. Predication confidence should reflect:\n" +
-               "   - Data completeness\n" +
-               "   - Form consistency\n" +
-               "   - Weather impact\n" +
-               "   - Squad availability\n" +
-               "   - Starting lineup quality\n" +
-               "   - Tactical matchup (formations)\n" +
-               "5. Consider:\n" +
-               "   - Team formations and player positions\n" +
-               "   - Individual player matchups\n" +
-               "   - Recent form and consistency\n" +
-               "   - Head-to-head history\n" +
-               "   - Weather conditions impact\n" +
-               "   - Available players and team strength\n" +
-               "   - Home/away advantage\n\n" +
-               "Return ONLY the JSON object without any additional text or formatting.";
+    private ProviderCommentary toCommentary(AiProvider provider, ProviderResponse response, long latencyMs) {
+        Completion completion = response.completion();
+        ProviderCommentary commentary = new ProviderCommentary(provider.getName(), ProviderCommentary.Status.SUCCESS,
+                latencyMs, completion.getText(), response.cached());
+        commentary.setInputTokens(completion.getInputTokens());
+        commentary.setCachedTokens(completion.getCachedTokens());
+        commentary.setOutputTokens(completion.getOutputTokens());
+
+        if (!response.cached()) {
+            recordTokens(provider.getName(), "input", completion.getInputTokens());
+            recordTokens(provider.getName(), "cached", completion.getCachedTokens());
+            recordTokens(provider.getName(), "output", completion.getOutputTokens());
+        }
+        return commentary;
+    }
+
+    private void recordTokens(String provider, String type, Integer tokens) {
+        if (tokens != null) {
+            meterRegistry.counter("football.ai.provider.tokens", "provider", provider, "type", type).increment(tokens);
+        }
+    }
+
+    private record ProviderResponse(Completion completion, boolean cached) {
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,14 @@ package com.moxakk.analyzer.scraping.football.service;
 
 import com.moxakk.analyzer.scraping.football.exception.ScrapingError;
 import com.moxakk.analyzer.scraping.football.model.*;
+import com.moxakk.analyzer.scraping.football.util.BrowserScripts;
+import com.moxakk.analyzer.scraping.football.util.SingleFlight;
+import com.moxakk.analyzer.scraping.football.util.StageGraph;
 import com.moxakk.analyzer.scraping.football.util.WebDriverFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -12,11 +17,18 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -28,49 +40,173 @@ public class FootballMatchAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(FootballMatchAnalyzer.class);
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36";
 
+    public static final String STAGE_VENUE = "venue";
+    public static final String STAGE_WEATHER = "weather";
+    public static final String STAGE_UNAVAILABLE_PLAYERS = "unavailablePlayers";
+    public static final String STAGE_RECENT_MATCHES = "recentMatches";
+    public static final String STAGE_LINEUPS = "teamLineups";
+    public static final String STAGE_STANDINGS = "standings";
+
+    /**
+     * Returns the formation and players of both teams, or null until both lineups are rendered.
+     */
+    private static final String LINEUPS_SCRIPT = """
+            function lineup(selector) {
+                var root = document.querySelector(selector);
+                if (!root) { return null; }
+                var formation = root.querySelector('.formation');
+                var players = Array.prototype.map.call(root.querySelectorAll('.players .player'), function (player) {
+                    function text(field) {
+                        var element = player.querySelector(field);
+                        return element ? element.innerText.trim() : null;
+                    }
+                    return { number: text('.number'), name: text('.name'), position: text('.position') };
+                });
+                if (!formation || players.length === 0) { return null; }
+                return { formation: formation.innerText.trim(), players: players };
+            }
+            var home = lineup('.home-team');
+            var away = lineup('.away-team');
+            return home && away ? { home: home, away: away } : null;
+            """;
+
     private final WeatherService weatherService;
     private final JdbcTemplate jdbcTemplate;
     private final WebDriverFactory webDriverFactory;
+    private final Executor scrapeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final LeagueStandingsCache leagueStandingsCache;
+    private final MatchDataCodec matchDataCodec;
+    private final Duration matchDataTtl;
+    private final SingleFlight<String, MatchData> analysisFlight;
 
     @Autowired
-    public FootballMatchAnalyzer(WeatherService weatherService, JdbcTemplate jdbcTemplate, WebDriverFactory webDriverFactory) {
+    public FootballMatchAnalyzer(WeatherService weatherService, JdbcTemplate jdbcTemplate, WebDriverFactory webDriverFactory,
+                                 @Qualifier("scrapeExecutor") Executor scrapeExecutor, MeterRegistry meterRegistry,
+                                 LeagueStandingsCache leagueStandingsCache, MatchDataCodec matchDataCodec,
+                                 @Value("${football.match-data.ttl-hours:6}") long matchDataTtlHours,
+                                 @Value("${football.singleflight.max-age-seconds:300}") long singleFlightMaxAgeSeconds) {
         this.weatherService = weatherService;
         this.jdbcTemplate = jdbcTemplate;
         this.webDriverFactory = webDriverFactory;
+        this.scrapeExecutor = scrapeExecutor;
+        this.meterRegistry = meterRegistry;
+        this.leagueStandingsCache = leagueStandingsCache;
+        this.matchDataCodec = matchDataCodec;
+        this.matchDataTtl = Duration.ofHours(matchDataTtlHours);
+        this.analysisFlight = new SingleFlight<>("analysis", Duration.ofSeconds(singleFlightMaxAgeSeconds), meterRegistry);
+    }
+
+    /**
+     * Creates the match data table if it does not exist. Rows hold either a jsonb document or a
+     * binary record, depending on the storage format they were written with, and the time they
+     * were scraped. Rows from before that time was recorded count as stale.
+     */
+    @PostConstruct
+    public void initialize() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS match_data (" +
+                    "id VARCHAR(255) PRIMARY KEY, " +
+                    "data JSONB, " +
+                    "data_binary BYTEA, " +
+                    "created_at TIMESTAMP)");
+            jdbcTemplate.execute("ALTER TABLE match_data ADD COLUMN IF NOT EXISTS data_binary BYTEA");
+            jdbcTemplate.execute("ALTER TABLE match_data ADD COLUMN IF NOT EXISTS created_at TIMESTAMP");
+            jdbcTemplate.execute("ALTER TABLE match_data ALTER COLUMN data DROP NOT NULL");
+        } catch (Exception e) {
+            logger.error("Error creating match_data table: {}", e.getMessage(), e);
+        }
     }
 
     /**
      * Analyzes a football match by scraping data from websites.
+     * Concurrent requests for the same fixture share a single analysis.
      *
      * @param homeTeam The home team
      * @param awayTeam The away team
      * @return Match data
      */
     public MatchData analyzeFootballMatch(String homeTeam, String awayTeam) {
+        return analyzeFootballMatch(homeTeam, awayTeam, AnalysisProgressListener.NONE);
+    }
+
+    /**
+     * Analyzes a football match, reporting each section to the listener as soon as it is scraped.
+     * Callers that join an analysis already in flight, or that are served from the database, receive
+     * no section callbacks and should read the sections from the returned match data.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param listener Receives scraped sections
+     * @return Match data
+     */
+    public MatchData analyzeFootballMatch(String homeTeam, String awayTeam, AnalysisProgressListener listener) {
         String matchInput = homeTeam + "-" + awayTeam;
+        return analysisFlight.execute(matchInput, () -> analyze(matchInput, homeTeam, awayTeam, listener, true));
+    }
 
-        // Check if the match data already exists in the database
+    /**
+     * Analyzes a football match but leaves the weather to the caller, for callers that resolve the
+     * weather of many matches in one bulk lookup. Match data loaded from the database keeps its
+     * stored weather; newly scraped match data has no weather and is only saved once
+     * {@link #attachWeather(MatchData, WeatherData)} is called.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @return Match data, with weather only if it was loaded from the database
+     */
+    public MatchData analyzeFootballMatchWithoutWeather(String homeTeam, String awayTeam) {
+        String matchInput = homeTeam + "-" + awayTeam;
+        return analysisFlight.execute(matchInput + "|without-weather",
+                () -> analyze(matchInput, homeTeam, awayTeam, AnalysisProgressListener.NONE, false));
+    }
+
+    /**
+     * Completes match data analyzed without weather and saves it to the database.
+     *
+     * @param matchData The match data
+     * @param weather The weather at the venue, or null to look it up for this match alone
+     */
+    public void attachWeather(MatchData matchData, WeatherData weather) {
+        matchData.setWeather(weather != null ? weather : weatherService.getWeatherData(matchData.getVenue()));
+        saveMatchDataToDatabase(matchData);
+    }
+
+    /**
+     * Loads match data from the database or scrapes it.
+     *
+     * @param matchInput The match identifier
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param listener Receives scraped sections
+     * @param withWeather Whether to look up the weather and save the match data; otherwise the
+     *                    caller attaches the weather
+     * @return Match data
+     */
+    private MatchData analyze(String matchInput, String homeTeam, String awayTeam, AnalysisProgressListener listener,
+                              boolean withWeather) {
+
+        // Check if fresh match data already exists in the database; lineups and absences change
         try {
             List<Map<String, Object>> existingMatches = jdbcTemplate.queryForList(
-                    "SELECT * FROM match_data WHERE id = ?",
-                    matchInput
+                    "SELECT id, data::text AS data, data_binary FROM match_data WHERE id = ? AND created_at > ?",
+                    matchInput, Timestamp.from(Instant.now().minus(matchDataTtl))
             );
 
             if (!existingMatches.isEmpty()) {
-                logger.info("Match data found in database for {}", matchInput);
-                // Convert the database record to MatchData
-                // This is a simplified version, you would need to implement the actual conversion
-                return convertDatabaseRecordToMatchData(existingMatches.get(0));
+                MatchData stored = convertDatabaseRecordToMatchData(existingMatches.get(0));
+                if (stored != null) {
+                    logger.info("Match data found in database for {}", matchInput);
+                    return stored;
+                }
+                logger.info("Stored match data for {} is empty, scraping again", matchInput);
             }
         } catch (Exception e) {
             logger.error("Error checking database for match data: {}", e.getMessage(), e);
             // Continue with scraping if database check fails
         }
 
-        WebDriver driver = null;
         try {
-            driver = webDriverFactory.createWebDriver();
-
             // Initialize match data
             MatchData matchData = new MatchData();
             matchData.setId(matchInput);
@@ -78,41 +214,50 @@ public class FootballMatchAnalyzer {
             matchData.setHomeTeam(homeTeam);
             matchData.setAwayTeam(awayTeam);
 
-            // Get venue
-            String venue = scrapeVenue(driver, homeTeam, awayTeam);
-            matchData.setVenue(venue);
-
-            // Get weather data
-            WeatherData weatherData = weatherService.getWeatherData(venue);
-            matchData.setWeather(weatherData);
-
-            // Get unavailable players
-            Map<String, List<String>> unavailablePlayers = scrapeUnavailablePlayers(driver, homeTeam, awayTeam);
-            matchData.setUnavailablePlayers(unavailablePlayers);
-
-            // Get recent matches
-            Map<String, List<String>> recentMatches = scrapeRecentMatches(driver, homeTeam, awayTeam);
-            matchData.setRecentMatches(recentMatches);
-
-            // Get team lineups
-            TeamLineups teamLineups = scrapeTeamLineups(driver, homeTeam, awayTeam);
-            matchData.setTeamLineups(teamLineups);
-
-            // Get standings
-            StandingsResult standings = scrapeStandings(driver, homeTeam, awayTeam);
-            matchData.setStandings(standings);
-
-            // Save match data to database
-            saveMatchDataToDatabase(matchData);
+            // Run independent sections concurrently; weather only waits for the venue
+            StageGraph stages = new StageGraph()
+                    .addStage(STAGE_VENUE, r -> withDriver(driver -> scrapeVenue(driver, homeTeam, awayTeam)));
+            if (withWeather) {
+                stages.addStage(STAGE_WEATHER, r -> weatherService.getWeatherData(r.get(STAGE_VENUE)), STAGE_VENUE);
+            }
+            StageGraph.Results results = stages
+                    .addStage(STAGE_UNAVAILABLE_PLAYERS, r -> withDriver(driver -> scrapeUnavailablePlayers(driver, homeTeam, awayTeam)))
+                    .addStage(STAGE_RECENT_MATCHES, r -> withDriver(driver -> scrapeRecentMatches(driver, homeTeam, awayTeam)))
+                    .addStage(STAGE_LINEUPS, r -> withDriver(driver -> scrapeTeamLineups(driver, homeTeam, awayTeam)))
+                    .addStage(STAGE_STANDINGS, r -> scrapeStandings(homeTeam, awayTeam))
+                    .execute(scrapeExecutor, listener::onSection);
+
+            matchData.setVenue(results.get(STAGE_VENUE));
+            matchData.setUnavailablePlayers(results.get(STAGE_UNAVAILABLE_PLAYERS));
+            matchData.setRecentMatches(results.get(STAGE_RECENT_MATCHES));
+            matchData.setTeamLineups(results.get(STAGE_LINEUPS));
+            matchData.setStandings(results.get(STAGE_STANDINGS));
+
+            if (withWeather) {
+                matchData.setWeather(results.get(STAGE_WEATHER));
+                // Save match data to database
+                saveMatchDataToDatabase(matchData);
+            }
 
             return matchData;
         } catch (Exception e) {
             logger.error("Error analyzing football match: {}", e.getMessage(), e);
             throw new ScrapingError("Failed to analyze football match: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs a scrape section on a browser session borrowed from the pool.
+     *
+     * @param section The section to run
+     * @return The section result
+     */
+    private <T> T withDriver(Function<WebDriver, T> section) {
+        WebDriver driver = webDriverFactory.borrowWebDriver();
+        try {
+            return section.apply(driver);
         } finally {
-            if (driver != null) {
-                driver.quit();
-            }
+            webDriverFactory.releaseWebDriver(driver);
         }
     }
 
@@ -248,42 +393,14 @@ public class FootballMatchAnalyzer {
             String url = "https://www.example.com/lineups/" + homeTeam.toLowerCase() + "-vs-" + awayTeam.toLowerCase();
             driver.get(url);
 
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-
-            // Get home team formation
-            WebElement homeFormationElement = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.cssSelector(".home-team .formation")));
-            String homeFormation = homeFormationElement.getText();
-
-            // Get away team formation
-            WebElement awayFormationElement = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.cssSelector(".away-team .formation")));
-            String awayFormation = awayFormationElement.getText();
-
-            // Get home team players
-            List<WebElement> homePlayerElements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
-                    By.cssSelector(".home-team .players .player")));
-
-            // Get away team players
-            List<WebElement> awayPlayerElements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
-                    By.cssSelector(".away-team .players .player")));
-
-            // Process home team players
-            List<PlayerPosition> homePlayers = homePlayerElements.stream()
-                    .map(this::extractPlayerPosition)
-                    .collect(Collectors.toList());
-
-            // Process away team players
-            List<PlayerPosition> awayPlayers = awayPlayerElements.stream()
-                    .map(this::extractPlayerPosition)
-                    .collect(Collectors.toList());
-
-            // Set team formations
-            TeamFormation homeTeamFormation = new TeamFormation(homeFormation, homePlayers);
-            TeamFormation awayTeamFormation = new TeamFormation(awayFormation, awayPlayers);
-
-            teamLineups.setHome(homeTeamFormation);
-            teamLineups.setAway(awayTeamFormation);
+            try {
+                teamLineups = extractTeamLineupsWithScript(driver);
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                recordExtractionFallback("lineups", e);
+                teamLineups = extractTeamLineupsPerElement(driver);
+            }
         } catch (Exception e) {
             logger.error("Error scraping team lineups: {}", e.getMessage(), e);
             // Return empty lineups if scraping fails
@@ -292,6 +409,83 @@ public class FootballMatchAnalyzer {
         return teamLineups;
     }
 
+    /**
+     * Extracts both lineups with a single script execution.
+     *
+     * @param driver WebDriver instance on the lineups page
+     * @return Team lineups for both teams
+     */
+    private TeamLineups extractTeamLineupsWithScript(WebDriver driver) {
+        Map<String, Object> lineups = BrowserScripts.asMap(
+                BrowserScripts.waitForScript(driver, LINEUPS_SCRIPT, Duration.ofSeconds(10)));
+
+        TeamFormation homeTeamFormation = toTeamFormation(BrowserScripts.asMap(lineups.get("home")));
+        TeamFormation awayTeamFormation = toTeamFormation(BrowserScripts.asMap(lineups.get("away")));
+
+        return new TeamLineups(homeTeamFormation, awayTeamFormation);
+    }
+
+    /**
+     * Maps a lineup returned by {@link #LINEUPS_SCRIPT} to a TeamFormation.
+     *
+     * @param lineup The lineup payload
+     * @return TeamFormation object
+     */
+    private TeamFormation toTeamFormation(Map<String, Object> lineup) {
+        List<PlayerPosition> players = BrowserScripts.asList(lineup.get("players")).stream()
+                .map(player -> {
+                    Map<String, Object> fields = BrowserScripts.asMap(player);
+                    return toPlayerPosition((String) fields.get("number"), (String) fields.get("name"), (String) fields.get("position"));
+                })
+                .collect(Collectors.toList());
+
+        return new TeamFormation((String) lineup.get("formation"), players);
+    }
+
+    /**
+     * Extracts both lineups element by element. Used when the script extraction fails.
+     *
+     * @param driver WebDriver instance on the lineups page
+     * @return Team lineups for both teams
+     */
+    private TeamLineups extractTeamLineupsPerElement(WebDriver driver) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+
+        // Get home team formation
+        WebElement homeFormationElement = wait.until(ExpectedConditions.presenceOfElementLocated(
+                By.cssSelector(".home-team .formation")));
+        String homeFormation = homeFormationElement.getText();
+
+        // Get away team formation
+        WebElement awayFormationElement = wait.until(ExpectedConditions.presenceOfElementLocated(
+                By.cssSelector(".away-team .formation")));
+        String awayFormation = awayFormationElement.getText();
+
+        // Get home team players
+        List<WebElement> homePlayerElements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
+                By.cssSelector(".home-team .players .player")));
+
+        // Get away team players
+        List<WebElement> awayPlayerElements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
+                By.cssSelector(".away-team .players .player")));
+
+        // Process home team players
+        List<PlayerPosition> homePlayers = homePlayerElements.stream()
+                .map(this::extractPlayerPosition)
+                .collect(Collectors.toList());
+
+        // Process away team players
+        List<PlayerPosition> awayPlayers = awayPlayerElements.stream()
+                .map(this::extractPlayerPosition)
+                .collect(Collectors.toList());
+
+        // Set team formations
+        TeamFormation homeTeamFormation = new TeamFormation(homeFormation, homePlayers);
+        TeamFormation awayTeamFormation = new TeamFormation(awayFormation, awayPlayers);
+
+        return new TeamLineups(homeTeamFormation, awayTeamFormation);
+    }
+
     /**
      * Extracts player position from a WebElement.
      *
@@ -304,11 +498,24 @@ public class FootballMatchAnalyzer {
             WebElement nameElement = playerElement.findElement(By.cssSelector(".name"));
             WebElement positionElement = playerElement.findElement(By.cssSelector(".position"));
 
-            Integer number = Integer.parseInt(numberElement.getText());
-            String name = nameElement.getText();
-            String position = positionElement.getText();
+            return toPlayerPosition(numberElement.getText(), nameElement.getText(), positionElement.getText());
+        } catch (Exception e) {
+            logger.error("Error extracting player position: {}", e.getMessage(), e);
+            return new PlayerPosition(null, "Unknown", "Unknown");
+        }
+    }
 
-            return new PlayerPosition(number, name, position);
+    /**
+     * Creates a PlayerPosition from the raw cell texts of a lineup entry.
+     *
+     * @param number The shirt number text
+     * @param name The player name
+     * @param position The position text
+     * @return PlayerPosition object
+     */
+    private PlayerPosition toPlayerPosition(String number, String name, String position) {
+        try {
+            return new PlayerPosition(Integer.parseInt(number.trim()), name, position);
         } catch (Exception e) {
             logger.error("Error extracting player position: {}", e.getMessage(), e);
             return new PlayerPosition(null, "Unknown", "Unknown");
@@ -316,29 +523,20 @@ public class FootballMatchAnalyzer {
     }
 
     /**
-     * Scrapes standings for both teams.
+     * Looks up standings for both teams in the shared league snapshot.
      *
-     * @param driver WebDriver instance
      * @param homeTeam The home team
      * @param awayTeam The away team
      * @return Standings for both teams
      */
-    private StandingsResult scrapeStandings(WebDriver driver, String homeTeam, String awayTeam) {
+    private StandingsResult scrapeStandings(String homeTeam, String awayTeam) {
         StandingsResult standingsResult = new StandingsResult();
 
         try {
-            // This is a placeholder implementation
-            // You would need to implement the actual scraping logic
-            String url = "https://www.example.com/standings";
-            driver.get(url);
-
-            // Scrape home team standings
-            TeamStanding homeStanding = scrapeTeamStanding(driver, homeTeam);
-            standingsResult.setHome(homeStanding);
-
-            // Scrape away team standings
-            TeamStanding awayStanding = scrapeTeamStanding(driver, awayTeam);
-            standingsResult.setAway(awayStanding);
+            standingsResult.setHome(leagueStandingsCache.getTeamStanding(homeTeam)
+                    .orElseGet(() -> createDefaultTeamStanding(homeTeam)));
+            standingsResult.setAway(leagueStandingsCache.getTeamStanding(awayTeam)
+                    .orElseGet(() -> createDefaultTeamStanding(awayTeam)));
         } catch (Exception e) {
             logger.error("Error scraping standings: {}", e.getMessage(), e);
             // Return default standings if scraping fails
@@ -350,70 +548,14 @@ public class FootballMatchAnalyzer {
     }
 
     /**
-     * Scrapes team standing for a specific team.
+     * Records that a section fell back to per-element extraction.
      *
-     * @param driver WebDriver instance
-     * @param team The team to scrape standings for
-     * @return Team standing
+     * @param section The section name
+     * @param cause The reason the script extraction failed
      */
-    private TeamStanding scrapeTeamStanding(WebDriver driver, String team) {
-        try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-
-            // Find the row for the team in the overall standings table
-            WebElement overallRow = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//table[@id='overall-standings']//tr[contains(., '" + team + "')]")));
-
-            // Find the row for the team in the home standings table
-            WebElement homeRow = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//table[@id='home-standings']//tr[contains(., '" + team + "')]")));
-
-            // Find the row for the team in the away standings table
-            WebElement awayRow = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//table[@id='away-standings']//tr[contains(., '" + team + "')]")));
-
-            // Extract overall standing data
-            TeamStandingData overallData = extractTeamStandingData(overallRow);
-
-            // Extract home standing data
-            TeamStandingData homeData = extractTeamStandingData(homeRow);
-
-            // Extract away standing data
-            TeamStandingData awayData = extractTeamStandingData(awayRow);
-
-            return new TeamStanding(overallData, homeData, awayData);
-        } catch (Exception e) {
-            logger.error("Error scraping team standing for {}: {}", team, e.getMessage(), e);
-            return createDefaultTeamStanding(team);
-        }
-    }
-
-    /**
-     * Extracts team standing data from a WebElement.
-     *
-     * @param rowElement WebElement containing team standing data
-     * @return TeamStandingData object
-     */
-    private TeamStandingData extractTeamStandingData(WebElement rowElement) {
-        try {
-            List<WebElement> cells = rowElement.findElements(By.tagName("td"));
-
-            int position = Integer.parseInt(cells.get(0).getText());
-            String team = cells.get(1).getText();
-            int played = Integer.parseInt(cells.get(2).getText());
-            int won = Integer.parseInt(cells.get(3).getText());
-            int drawn = Integer.parseInt(cells.get(4).getText());
-            int lost = Integer.parseInt(cells.get(5).getText());
-            int goalsFor = Integer.parseInt(cells.get(6).getText());
-            int goalsAgainst = Integer.parseInt(cells.get(7).getText());
-            int goalDifference = Integer.parseInt(cells.get(8).getText());
-            int points = Integer.parseInt(cells.get(9).getText());
-
-            return new TeamStandingData(position, team, played, won, drawn, lost, goalsFor, goalsAgainst, goalDifference, points);
-        } catch (Exception e) {
-            logger.error("Error extracting team standing data: {}", e.getMessage(), e);
-            return new TeamStandingData(0, "Unknown", 0, 0, 0, 0, 0, 0, 0, 0);
-        }
+    private void recordExtractionFallback(String section, Exception cause) {
+        logger.warn("Script extraction failed for {}, falling back to per-element extraction: {}", section, cause.getMessage());
+        meterRegistry.counter("football.scrape.extraction.fallback", "section", section).increment();
     }
 
     /**
@@ -428,37 +570,29 @@ public class FootballMatchAnalyzer {
     }
 
     /**
-     * Saves match data to the database.
+     * Saves match data to the database in the configured storage format. Match data with default
+     * weather is not saved, so a failed weather lookup is not reused until the row expires.
      *
      * @param matchData The match data to save
      */
     private void saveMatchDataToDatabase(MatchData matchData) {
-        try {
-            // Convert match data to JSON for storage
-            // This is a simplified version, you would need to implement the actual conversion
-            String matchDataJson = convertMatchDataToJson(matchData);
+        if (weatherService.isDefaultWeatherData(matchData.getWeather())) {
+            logger.info("Not saving match data for {} without weather", matchData.getId());
+            return;
+        }
 
-            // Check if the match data already exists
-            List<Map<String, Object>> existingMatches = jdbcTemplate.queryForList(
-                    "SELECT * FROM match_data WHERE id = ?",
-                    matchData.getId()
+        try {
+            String json = matchDataCodec.isBinary() ? null : matchDataCodec.toJson(matchData);
+            byte[] binary = matchDataCodec.isBinary() ? matchDataCodec.toBinary(matchData) : null;
+
+            jdbcTemplate.update(
+                    "INSERT INTO match_data (id, data, data_binary, created_at) VALUES (?, CAST(? AS jsonb), ?, ?) " +
+                    "ON CONFLICT (id) DO UPDATE SET data = EXCLUDED.data, data_binary = EXCLUDED.data_binary, " +
+                    "created_at = EXCLUDED.created_at",
+                    matchData.getId(), json, binary, Timestamp.from(Instant.now())
             );
 
-            if (existingMatches.isEmpty()) {
-                // Insert new match data
-                jdbcTemplate.update(
-                        "INSERT INTO match_data (id, data) VALUES (?, ?)",
-                        matchData.getId(), matchDataJson
-                );
-            } else {
-                // Update existing match data
-                jdbcTemplate.update(
-                        "UPDATE match_data SET data = ? WHERE id = ?",
-                        matchDataJson, matchData.getId()
-                );
-            }
-
-            logger.info("Match data saved to database for {}", matchData.getId());
+            logger.info("Match data saved to database for {} as {}", matchData.getId(), matchDataCodec.getFormat());
         } catch (Exception e) {
             logger.error("Error saving match data to database: {}", e.getMessage(), e);
             // Continue without saving to database
@@ -466,32 +600,30 @@ public class FootballMatchAnalyzer {
     }
 
     /**
-     * Converts match data to JSON for storage.
-     *
-     * @param matchData The match data to convert
-     * @return JSON string representation of match data
-     */
-    private String convertMatchDataToJson(MatchData matchData) {
-        // This is a placeholder implementation
-        // You would need to implement the actual conversion using Jackson or Gson
-        return "{}";
-    }
-
-    /**
-     * Converts a database record to MatchData.
+     * Converts a database record to MatchData. Binary records take precedence, so rows keep
+     * loading after the storage format is switched either way.
      *
      * @param record The database record
-     * @return MatchData object
+     * @return MatchData object, or null if the record holds no match data
+     * @throws IOException if the stored data cannot be decoded
      */
-    private MatchData convertDatabaseRecordToMatchData(Map<String, Object> record) {
-        // This is a placeholder implementation
-        // You would need to implement the actual conversion
-        MatchData matchData = new MatchData();
-        matchData.setId((String) record.get("id"));
-
-        // Parse the JSON data from the database
-        // This is a simplified version, you would need to implement the actual parsing
+    private MatchData convertDatabaseRecordToMatchData(Map<String, Object> record) throws IOException {
+        MatchData matchData;
+        if (record.get("data_binary") instanceof byte[] binary) {
+            matchData = matchDataCodec.fromBinary(binary);
+        } else if (record.get("data") instanceof String json) {
+            matchData = matchDataCodec.fromJson(json);
+        } else {
+            return null;
+        }
 
+        // Rows written before match data was serialized hold an empty document
+        if (matchData.getHomeTeam() == null || matchData.getAwayTeam() == null) {
+            return null;
+        }
+        if (matchData.getId() == null) {
+            matchData.setId((String) record.get("id"));
+        }
         return matchData;
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,27 @@
 package com.moxakk.analyzer.scraping.football.service;
 
+import com.moxakk.analyzer.scraping.football.model.CommentaryOptions;
+import com.moxakk.analyzer.scraping.football.model.Fixture;
 import com.moxakk.analyzer.scraping.football.model.MatchData;
+import com.moxakk.analyzer.scraping.football.model.ProviderCommentary;
+import com.moxakk.analyzer.scraping.football.model.WeatherData;
+import com.moxakk.analyzer.scraping.football.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for football scraping operations.
@@ -20,28 +34,159 @@ public class FootballScrapingService {
 
     private final FootballMatchAnalyzer footballMatchAnalyzer;
     private final FootballCommentaryService footballCommentaryService;
+    private final WeatherService weatherService;
+    private final SingleFlight<String, Map<String, Object>> commentaryFlight;
 
     @Autowired
-    public FootballScrapingService(FootballMatchAnalyzer footballMatchAnalyzer, FootballCommentaryService footballCommentaryService) {
+    public FootballScrapingService(FootballMatchAnalyzer footballMatchAnalyzer, FootballCommentaryService footballCommentaryService,
+                                   WeatherService weatherService, MeterRegistry meterRegistry,
+                                   @Value("${football.singleflight.max-age-seconds:300}") long singleFlightMaxAgeSeconds) {
         this.footballMatchAnalyzer = footballMatchAnalyzer;
         this.footballCommentaryService = footballCommentaryService;
+        this.weatherService = weatherService;
+        this.commentaryFlight = new SingleFlight<>("commentary", Duration.ofSeconds(singleFlightMaxAgeSeconds), meterRegistry);
     }
 
     /**
-     * Analyzes a football match and generates commentary.
+     * Analyzes a football match and generates commentary from all providers.
      *
      * @param homeTeam The home team
      * @param awayTeam The away team
      * @return A map containing match data and commentary
      */
     public Map<String, Object> analyzeMatchAndGenerateCommentary(String homeTeam, String awayTeam) {
+        return analyzeMatchAndGenerateCommentary(homeTeam, awayTeam, CommentaryOptions.defaults());
+    }
+
+    /**
+     * Analyzes a football match and generates commentary.
+     * Concurrent requests for the same fixture and options share a single analysis and commentary run.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param options The quorum and soft deadline for commentary generation
+     * @return A map containing match data and commentary
+     */
+    public Map<String, Object> analyzeMatchAndGenerateCommentary(String homeTeam, String awayTeam, CommentaryOptions options) {
+        return analyzeMatchAndGenerateCommentary(homeTeam, awayTeam, options, AnalysisProgressListener.NONE);
+    }
+
+    /**
+     * Analyzes a football match and generates commentary, reporting each section and each
+     * provider's commentary to the listener as it becomes available. Every section and provider is
+     * reported exactly once, also when the result was shared with a concurrent request or loaded
+     * from the database.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param options The quorum and soft deadline for commentary generation
+     * @param listener Receives partial results
+     * @return A map containing match data and commentary
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> analyzeMatchAndGenerateCommentary(String homeTeam, String awayTeam, CommentaryOptions options,
+                                                                 AnalysisProgressListener listener) {
+        ProgressTracker tracker = new ProgressTracker(listener);
+        String key = homeTeam + "-" + awayTeam + "|" + options.toKey();
+        Map<String, Object> result = commentaryFlight.execute(key, () -> analyzeAndComment(homeTeam, awayTeam, options, tracker));
+
+        tracker.replaySections((MatchData) result.get("matchData"));
+        ((List<ProviderCommentary>) result.get("commentary")).forEach(tracker::onCommentary);
+        return result;
+    }
+
+    /**
+     * Analyzes several fixtures and generates their commentary in batch mode, with one provider
+     * call per batch of fixtures instead of one per fixture. Fixtures that cannot be analyzed are
+     * reported with their error and left out of the commentary; a fixture listed twice is analyzed once.
+     * The fixtures are scraped without weather, and the weather of all their venues is then resolved
+     * in one bulk lookup, so each distinct venue is geocoded and each location fetched only once.
+     *
+     * @param fixtures The fixtures to analyze
+     * @return One entry per fixture, with match data and commentary or an error
+     */
+    public List<Map<String, Object>> analyzeFixturesAndGenerateCommentary(List<Fixture> fixtures) {
+        logger.info("Analyzing {} fixtures for batch commentary", fixtures.size());
+
+        // Scrape each distinct fixture once; duplicates share its result
+        Map<String, Map<String, Object>> byFixture = new LinkedHashMap<>();
+        Map<String, MatchData> analyzed = new LinkedHashMap<>();
+        for (Fixture fixture : fixtures) {
+            String key = fixtureKey(fixture);
+            if (byFixture.containsKey(key)) {
+                continue;
+            }
+            try {
+                MatchData matchData = footballMatchAnalyzer.analyzeFootballMatchWithoutWeather(fixture.getHomeTeam(), fixture.getAwayTeam());
+                analyzed.putIfAbsent(matchData.getId(), matchData);
+                byFixture.put(key, Map.of("matchData", matchData));
+            } catch (Exception e) {
+                logger.error("Error analyzing {}: {}", fixture, e.getMessage(), e);
+                byFixture.put(key, Map.of("homeTeam", fixture.getHomeTeam(), "awayTeam", fixture.getAwayTeam(),
+                        "error", String.valueOf(e.getMessage())));
+            }
+        }
+
+        attachWeather(analyzed.values());
+
+        Map<String, List<ProviderCommentary>> commentary = analyzed.isEmpty()
+                ? Map.of() : footballCommentaryService.generateBatchCommentary(new ArrayList<>(analyzed.values()));
+
+        return fixtures.stream()
+                .map(fixture -> {
+                    Map<String, Object> result = byFixture.get(fixtureKey(fixture));
+                    MatchData matchData = (MatchData) result.get("matchData");
+                    if (matchData == null) {
+                        return result;
+                    }
+                    return Map.<String, Object>of(
+                        "matchData", matchData,
+                        "commentary", commentary.getOrDefault(matchData.getId(), List.of())
+                    );
+                })
+                .toList();
+    }
+
+    private static String fixtureKey(Fixture fixture) {
+        return fixture.getHomeTeam() + "-" + fixture.getAwayTeam();
+    }
+
+    /**
+     * Resolves the weather of all matches that were scraped without it in one bulk lookup.
+     *
+     * @param matches The analyzed matches; those loaded from the database already have weather
+     */
+    private void attachWeather(Collection<MatchData> matches) {
+        List<MatchData> withoutWeather = matches.stream().filter(matchData -> matchData.getWeather() == null).toList();
+        if (withoutWeather.isEmpty()) {
+            return;
+        }
+
+        Map<String, WeatherData> weather = weatherService.getWeatherDataForVenues(
+                withoutWeather.stream().map(MatchData::getVenue).filter(Objects::nonNull).toList());
+        for (MatchData matchData : withoutWeather) {
+            footballMatchAnalyzer.attachWeather(matchData, matchData.getVenue() != null ? weather.get(matchData.getVenue()) : null);
+        }
+    }
+
+    /**
+     * Runs the analysis and commentary generation for a fixture.
+     *
+     * @param homeTeam The home team
+     * @param awayTeam The away team
+     * @param options The quorum and soft deadline for commentary generation
+     * @param tracker Receives partial results
+     * @return A map containing match data and commentary
+     */
+    private Map<String, Object> analyzeAndComment(String homeTeam, String awayTeam, CommentaryOptions options, ProgressTracker tracker) {
         logger.info("Analyzing match and generating commentary for {} vs {}", homeTeam, awayTeam);
 
         // Analyze the match
-        MatchData matchData = footballMatchAnalyzer.analyzeFootballMatch(homeTeam, awayTeam);
+        MatchData matchData = footballMatchAnalyzer.analyzeFootballMatch(homeTeam, awayTeam, tracker);
+        tracker.replaySections(matchData);
 
         // Generate commentary
-        List<Object> commentary = footballCommentaryService.generateCommentary(matchData);
+        List<ProviderCommentary> commentary = footballCommentaryService.generateCommentary(matchData, options, tracker);
 
         // Return the results
         return Map.of(
@@ -49,4 +194,50 @@ public class FootballScrapingService {
             "commentary", commentary
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Forwards progress to a listener at most once per section and provider, so sections that were
+     * not observed live can be replayed from the finished result without duplicates.
+     */
+    private static final class ProgressTracker implements AnalysisProgressListener {
+        private final AnalysisProgressListener delegate;
+        private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+        ProgressTracker(AnalysisProgressListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSection(String section, Object value) {
+            if (value != null && reported.add("section:" + section)) {
+                delegate.onSection(section, value);
+            }
+        }
+
+        @Override
+        public void onCommentary(ProviderCommentary commentary) {
+            if (reported.add("commentary:" + commentary.getProvider())) {
+                delegate.onCommentary(commentary);
+            }
+        }
+
+        @Override
+        public void onToken(String provider, String token) {
+            delegate.onToken(provider, token);
+        }
+
+        @Override
+        public boolean wantsTokens() {
+            return delegate.wantsTokens();
+        }
+
+        void replaySections(MatchData matchData) {
+            onSection(FootballMatchAnalyzer.STAGE_VENUE, matchData.getVenue());
+            onSection(FootballMatchAnalyzer.STAGE_WEATHER, matchData.getWeather());
+            onSection(FootballMatchAnalyzer.STAGE_UNAVAILABLE_PLAYERS, matchData.getUnavailablePlayers());
+            onSection(FootballMatchAnalyzer.STAGE_RECENT_MATCHES, matchData.getRecentMatches());
+            onSection(FootballMatchAnalyzer.STAGE_LINEUPS, matchData.getTeamLineups());
+            onSection(FootballMatchAnalyzer.STAGE_STANDINGS, matchData.getStandings());
+        }
+    }
+}
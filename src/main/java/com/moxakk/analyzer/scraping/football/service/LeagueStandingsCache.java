@@ -0,0 +1,341 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.TeamStanding;
+import com.moxakk.analyzer.scraping.football.model.TeamStandingData;
+import com.moxakk.analyzer.scraping.football.util.BrowserScripts;
+import com.moxakk.analyzer.scraping.football.util.WebDriverFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory snapshot of the league standings shared by all fixtures.
+ * The overall, home and away tables are parsed once, indexed by team and refreshed when the
+ * snapshot is older than the configured TTL. While a refresh is running, callers keep reading
+ * the previous snapshot instead of waiting for the page load. After a failed load, no new load is
+ * attempted for a short back-off, so callers that queued behind it do not each reload the page.
+ */
+@Service
+public class LeagueStandingsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeagueStandingsCache.class);
+
+    private static final String STANDINGS_URL = "https://www.example.com/standings";
+    private static final String OVERALL_TABLE = "overall-standings";
+    private static final String HOME_TABLE = "home-standings";
+    private static final String AWAY_TABLE = "away-standings";
+    private static final List<String> TABLE_IDS = List.of(OVERALL_TABLE, HOME_TABLE, AWAY_TABLE);
+
+    /**
+     * Returns every row of the three standings tables as arrays of cell texts, or null until all tables have rows.
+     */
+    private static final String STANDINGS_SCRIPT = """
+            var ids = ['overall-standings', 'home-standings', 'away-standings'];
+            var tables = {};
+            for (var i = 0; i < ids.length; i++) {
+                var table = document.getElementById(ids[i]);
+                if (!table) { return null; }
+                var rows = [];
+                table.querySelectorAll('tr').forEach(function (row) {
+                    var cells = Array.prototype.map.call(row.querySelectorAll('td'), function (cell) {
+                        return cell.innerText.trim();
+                    });
+                    if (cells.length > 0) { rows.push(cells); }
+                });
+                if (rows.length === 0) { return null; }
+                tables[ids[i]] = rows;
+            }
+            return tables;
+            """;
+
+    @Value("${football.standings.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${football.standings.failure-backoff-seconds:30}")
+    private long failureBackoffSeconds;
+
+    private final WebDriverFactory webDriverFactory;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile Instant lastFailure;
+
+    public LeagueStandingsCache(WebDriverFactory webDriverFactory, MeterRegistry meterRegistry) {
+        this.webDriverFactory = webDriverFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Gets a team's standing from the current league snapshot, loading or refreshing it when needed.
+     *
+     * @param team The team to look up
+     * @return The team's standing, or empty if the team is not in the table or no snapshot could be loaded
+     */
+    public Optional<TeamStanding> getTeamStanding(String team) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.find(team));
+    }
+
+    /**
+     * Forces the snapshot to be reloaded on the next lookup.
+     */
+    public void invalidate() {
+        snapshot = null;
+        lastFailure = null;
+    }
+
+    /**
+     * Returns a fresh snapshot, refreshing it if it has expired. When another thread is already
+     * refreshing and a previous snapshot exists, that snapshot is returned instead of waiting.
+     * Within the back-off after a failed load, the previous snapshot, if any, is returned without
+     * loading again.
+     *
+     * @return The current snapshot, or null if none could be loaded
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(ttlMinutes)) {
+            return current;
+        }
+        if (isBackingOff()) {
+            return current;
+        }
+
+        if (current != null && !refreshLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            refreshLock.lock();
+        }
+
+        try {
+            Snapshot latest = snapshot;
+            if (latest != null && !latest.isExpired(ttlMinutes)) {
+                return latest;
+            }
+            // The attempt this caller waited for failed; share its outcome instead of reloading
+            if (isBackingOff()) {
+                return latest;
+            }
+
+            Snapshot loaded = loadSnapshot();
+            snapshot = loaded;
+            lastFailure = null;
+            meterRegistry.counter("football.standings.snapshot.refresh", "result", "success").increment();
+            logger.info("Loaded league standings snapshot with {} teams", loaded.size());
+            return loaded;
+        } catch (Exception e) {
+            meterRegistry.counter("football.standings.snapshot.refresh", "result", "failure").increment();
+            logger.error("Error loading league standings snapshot: {}", e.getMessage(), e);
+            lastFailure = Instant.now();
+            // Serve the stale snapshot rather than nothing
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isBackingOff() {
+        Instant failure = lastFailure;
+        return failure != null && Instant.now().isBefore(failure.plusSeconds(failureBackoffSeconds));
+    }
+
+    /**
+     * Loads the standings page once and parses all three tables into a snapshot.
+     *
+     * @return The loaded snapshot
+     */
+    private Snapshot loadSnapshot() {
+        WebDriver driver = webDriverFactory.borrowWebDriver();
+        try {
+            driver.get(STANDINGS_URL);
+
+            Map<String, List<List<String>>> tables;
+            try {
+                tables = extractTablesWithScript(driver);
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                logger.warn("Script extraction failed for standings, falling back to per-element extraction: {}", e.getMessage());
+                meterRegistry.counter("football.scrape.extraction.fallback", "section", "standings").increment();
+                tables = extractTablesPerElement(driver);
+            }
+
+            Snapshot loaded = Snapshot.of(tables);
+            if (loaded.size() == 0) {
+                throw new IllegalStateException("No teams could be parsed from the standings tables");
+            }
+            return loaded;
+        } finally {
+            webDriverFactory.releaseWebDriver(driver);
+        }
+    }
+
+    /**
+     * Extracts all three standings tables with a single script execution.
+     *
+     * @param driver WebDriver instance on the standings page
+     * @return The cell texts of every row, keyed by table id
+     */
+    private Map<String, List<List<String>>> extractTablesWithScript(WebDriver driver) {
+        Map<String, Object> payload = BrowserScripts.asMap(
+                BrowserScripts.waitForScript(driver, STANDINGS_SCRIPT, Duration.ofSeconds(10)));
+
+        Map<String, List<List<String>>> tables = new HashMap<>();
+        for (String tableId : TABLE_IDS) {
+            List<List<String>> rows = BrowserScripts.asList(payload.get(tableId)).stream()
+                    .map(row -> BrowserScripts.asList(row).stream().map(String::valueOf).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+            tables.put(tableId, rows);
+        }
+
+        return tables;
+    }
+
+    /**
+     * Extracts all three standings tables element by element. Used when the script extraction fails.
+     *
+     * @param driver WebDriver instance on the standings page
+     * @return The cell texts of every row, keyed by table id
+     */
+    private Map<String, List<List<String>>> extractTablesPerElement(WebDriver driver) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+
+        Map<String, List<List<String>>> tables = new HashMap<>();
+        for (String tableId : TABLE_IDS) {
+            List<WebElement> rowElements = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
+                    By.cssSelector("table#" + tableId + " tr")));
+
+            List<List<String>> rows = rowElements.stream()
+                    .map(row -> row.findElements(By.tagName("td")).stream()
+                            .map(WebElement::getText)
+                            .collect(Collectors.toList()))
+                    .filter(cells -> !cells.isEmpty())
+                    .collect(Collectors.toList());
+            tables.put(tableId, rows);
+        }
+
+        return tables;
+    }
+
+    /**
+     * Creates team standing data from the cell texts of a standings row.
+     *
+     * @param cells The cell texts of a standings row
+     * @return TeamStandingData object, or null if the row cannot be parsed
+     */
+    private static TeamStandingData toTeamStandingData(List<String> cells) {
+        try {
+            int position = Integer.parseInt(cells.get(0).trim());
+            String team = cells.get(1).trim();
+            int played = Integer.parseInt(cells.get(2).trim());
+            int won = Integer.parseInt(cells.get(3).trim());
+            int drawn = Integer.parseInt(cells.get(4).trim());
+            int lost = Integer.parseInt(cells.get(5).trim());
+            int goalsFor = Integer.parseInt(cells.get(6).trim());
+            int goalsAgainst = Integer.parseInt(cells.get(7).trim());
+            int goalDifference = Integer.parseInt(cells.get(8).trim());
+            int points = Integer.parseInt(cells.get(9).trim());
+
+            return new TeamStandingData(position, team, played, won, drawn, lost, goalsFor, goalsAgainst, goalDifference, points);
+        } catch (Exception e) {
+            logger.error("Error extracting team standing data from {}: {}", cells, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Normalizes a team name for index lookups.
+     *
+     * @param team The team name
+     * @return The normalized name
+     */
+    private static String normalize(String team) {
+        return team.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable league snapshot indexed by normalized team name.
+     */
+    private static final class Snapshot {
+        private final Map<String, TeamStanding> byTeam;
+        private final Instant loadedAt;
+
+        private Snapshot(Map<String, TeamStanding> byTeam, Instant loadedAt) {
+            this.byTeam = byTeam;
+            this.loadedAt = loadedAt;
+        }
+
+        static Snapshot of(Map<String, List<List<String>>> tables) {
+            Map<String, TeamStandingData> overall = indexTable(tables.get(OVERALL_TABLE));
+            Map<String, TeamStandingData> home = indexTable(tables.get(HOME_TABLE));
+            Map<String, TeamStandingData> away = indexTable(tables.get(AWAY_TABLE));
+
+            Map<String, TeamStanding> byTeam = new HashMap<>();
+            overall.forEach((key, overallData) -> {
+                TeamStandingData empty = new TeamStandingData(0, overallData.getTeam(), 0, 0, 0, 0, 0, 0, 0, 0);
+                byTeam.put(key, new TeamStanding(overallData, home.getOrDefault(key, empty), away.getOrDefault(key, empty)));
+            });
+
+            return new Snapshot(Map.copyOf(byTeam), Instant.now());
+        }
+
+        private static Map<String, TeamStandingData> indexTable(List<List<String>> rows) {
+            Map<String, TeamStandingData> index = new HashMap<>();
+            for (List<String> cells : rows) {
+                TeamStandingData data = toTeamStandingData(cells);
+                if (data != null) {
+                    index.putIfAbsent(normalize(data.getTeam()), data);
+                }
+            }
+            return index;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return loadedAt.plus(Duration.ofMinutes(ttlMinutes)).isBefore(Instant.now());
+        }
+
+        int size() {
+            return byTeam.size();
+        }
+
+        TeamStanding find(String team) {
+            String key = normalize(team);
+            TeamStanding standing = byTeam.get(key);
+            if (standing != null) {
+                return standing;
+            }
+
+            // Scraped names may carry suffixes such as "FC"; fall back to a whole-word containment
+            // match, but only when it is unambiguous ("Manchester" names two teams)
+            List<TeamStanding> matches = byTeam.entrySet().stream()
+                    .filter(entry -> containsWords(entry.getKey(), key) || containsWords(key, entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .limit(2)
+                    .toList();
+            return matches.size() == 1 ? matches.get(0) : null;
+        }
+
+        private static boolean containsWords(String text, String words) {
+            return !words.isEmpty() && (" " + text + " ").contains(" " + words + " ");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.util.ExpiringCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of raw LLM responses.
+ * Entries are keyed by a hash of the provider, model and prompt text. Lookups go to an in-process
+ * tier first and then to the llm_response_cache table, so a repeated analysis of the same match
+ * data is answered without calling the provider again.
+ */
+@Service
+public class LlmResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final boolean enabled;
+    private final ExpiringCache<String, String> memoryTier;
+
+    public LlmResponseCache(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${football.llm-cache.enabled:true}") boolean enabled,
+                            @Value("${football.llm-cache.ttl-hours:24}") long ttlHours,
+                            @Value("${football.llm-cache.memory-size:1000}") int memorySize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memoryTier = new ExpiringCache<>(ttl, memorySize);
+    }
+
+    /**
+     * Creates the cache table if it does not exist and registers metrics.
+     */
+    @PostConstruct
+    public void initialize() {
+        Gauge.builder("football.llm.cache.memory.size", memoryTier, ExpiringCache::size)
+                .description("Number of LLM responses held in memory")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS llm_response_cache (" +
+                    "cache_key VARCHAR(64) PRIMARY KEY, " +
+                    "provider VARCHAR(50) NOT NULL, " +
+                    "model VARCHAR(100) NOT NULL, " +
+                    "response TEXT NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL)");
+        } catch (Exception e) {
+            logger.error("Error creating llm_response_cache table: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes responses older than the TTL. Reads already skip them, but without the sweep every
+     * prompt variant would stay in the table forever.
+     */
+    @Scheduled(fixedDelayString = "${football.llm-cache.sweep-interval-ms:3600000}",
+            initialDelayString = "${football.llm-cache.sweep-interval-ms:3600000}")
+    public void deleteExpiredResponses() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM llm_response_cache WHERE created_at < ?",
+                    Timestamp.from(Instant.now().minus(ttl))
+            );
+            if (deleted > 0) {
+                meterRegistry.counter("football.llm.cache.deleted").increment(deleted);
+                logger.info("Deleted {} LLM responses older than {}h", deleted, ttl.toHours());
+            }
+        } catch (Exception e) {
+            logger.error("Error deleting expired LLM responses: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets a cached response.
+     *
+     * @param provider The provider name
+     * @param model The model name
+     * @param prompt The prompt text
+     * @return The cached response, or null on a miss
+     */
+    public String get(String provider, String model, String prompt) {
+        if (!enabled) {
+            return null;
+        }
+
+        String key = cacheKey(provider, model, prompt);
+        String response = memoryTier.get(key);
+        if (response != null) {
+            recordLookup(provider, "memory");
+            return response;
+        }
+
+        try {
+            Instant now = Instant.now();
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT response, created_at FROM llm_response_cache WHERE cache_key = ? AND created_at > ?",
+                    key, Timestamp.from(now.minus(ttl))
+            );
+            if (!rows.isEmpty()) {
+                String stored = (String) rows.get(0).get("response");
+                // Keep the entry in memory only until its original deadline, not for a fresh TTL
+                Instant expiresAt = ((Timestamp) rows.get(0).get("created_at")).toInstant().plus(ttl);
+                memoryTier.put(key, stored, Duration.between(now, expiresAt));
+                recordLookup(provider, "database");
+                return stored;
+            }
+        } catch (Exception e) {
+            logger.error("Error reading LLM response cache: {}", e.getMessage(), e);
+        }
+
+        recordLookup(provider, "miss");
+        return null;
+    }
+
+    /**
+     * Stores a response.
+     *
+     * @param provider The provider name
+     * @param model The model name
+     * @param prompt The prompt text
+     * @param response The raw response to store
+     */
+    public void put(String provider, String model, String prompt, String response) {
+        if (!enabled) {
+            return;
+        }
+
+        String key = cacheKey(provider, model, prompt);
+        memoryTier.put(key, response);
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO llm_response_cache (cache_key, provider, model, response, created_at) VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (cache_key) DO UPDATE SET response = EXCLUDED.response, created_at = EXCLUDED.created_at",
+                    key, provider, model, response, Timestamp.from(Instant.now())
+            );
+        } catch (Exception e) {
+            logger.error("Error writing LLM response cache: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the content address of a response.
+     *
+     * @param provider The provider name
+     * @param model The model name
+     * @param prompt The prompt text
+     * @return Hex-encoded SHA-256 of provider, model and prompt
+     */
+    static String cacheKey(String provider, String model, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(provider.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void recordLookup(String provider, String result) {
+        meterRegistry.counter("football.llm.cache.lookups", "provider", provider, "result", result).increment();
+    }
+}
@@ -0,0 +1,132 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.moxakk.analyzer.scraping.football.model.MatchData;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes match data for the match_data table.
+ * Match data is stored either as JSON, which goes into a jsonb column and can be queried in the
+ * database, or as CBOR, which is smaller and faster to decode. Both are copies of the
+ * Spring-managed ObjectMapper, so they share its modules, and both ignore properties that are
+ * no longer known, so rows written before a field was removed keep decoding.
+ * Binary records start with a version byte, so the encoding can evolve without breaking rows
+ * written by earlier versions.
+ */
+@Component
+public class MatchDataCodec {
+
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_CBOR = "cbor";
+
+    /**
+     * Version of the binary record layout: one version byte followed by the CBOR document.
+     */
+    static final byte BINARY_VERSION = 1;
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final MeterRegistry meterRegistry;
+    private final String format;
+
+    @Autowired
+    public MatchDataCodec(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${football.match-data.storage-format:json}") String format) {
+        if (!FORMAT_JSON.equals(format) && !FORMAT_CBOR.equals(format)) {
+            throw new IllegalArgumentException("Unknown match data storage format: " + format);
+        }
+        this.jsonMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.cborMapper = jsonMapper.copyWith(new CBORFactory());
+        this.meterRegistry = meterRegistry;
+        this.format = format;
+    }
+
+    /**
+     * Gets the format new match data is stored in.
+     *
+     * @return The storage format, json or cbor
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isBinary() {
+        return FORMAT_CBOR.equals(format);
+    }
+
+    /**
+     * Serializes match data to JSON.
+     *
+     * @param matchData The match data
+     * @return The JSON document
+     * @throws IOException if the match data cannot be serialized
+     */
+    public String toJson(MatchData matchData) throws IOException {
+        String json = jsonMapper.writeValueAsString(matchData);
+        record(FORMAT_JSON, json.getBytes(StandardCharsets.UTF_8).length);
+        return json;
+    }
+
+    /**
+     * Deserializes match data from JSON.
+     *
+     * @param json The JSON document
+     * @return The match data
+     * @throws IOException if the document is not valid match data
+     */
+    public MatchData fromJson(String json) throws IOException {
+        return jsonMapper.readValue(json, MatchData.class);
+    }
+
+    /**
+     * Serializes match data to a versioned binary record.
+     *
+     * @param matchData The match data
+     * @return The version byte followed by the CBOR document
+     * @throws IOException if the match data cannot be serialized
+     */
+    public byte[] toBinary(MatchData matchData) throws IOException {
+        byte[] cbor = cborMapper.writeValueAsBytes(matchData);
+        byte[] record = new byte[cbor.length + 1];
+        record[0] = BINARY_VERSION;
+        System.arraycopy(cbor, 0, record, 1, cbor.length);
+        record(FORMAT_CBOR, record.length);
+        return record;
+    }
+
+    /**
+     * Deserializes match data from a binary record.
+     *
+     * @param record The version byte followed by the CBOR document
+     * @return The match data
+     * @throws IOException if the document is not valid match data
+     * @throws IllegalArgumentException if the record is empty or of an unknown version
+     */
+    public MatchData fromBinary(byte[] record) throws IOException {
+        if (record.length == 0) {
+            throw new IllegalArgumentException("Empty match data record");
+        }
+        if (record[0] != BINARY_VERSION) {
+            throw new IllegalArgumentException("Unsupported match data version: " + record[0]);
+        }
+        return cborMapper.readValue(record, 1, record.length - 1, MatchData.class);
+    }
+
+    private void record(String encoding, int bytes) {
+        DistributionSummary.builder("football.match-data.encoded.bytes")
+                .tag("format", encoding)
+                .description("Size of serialized match data")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,437 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.*;
+import com.moxakk.analyzer.scraping.football.util.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Encodes match data into prompts for the AI providers.
+ * Two encodings are available: the verbose one writes every value on its own line as prose, and
+ * the compact one writes standings as CSV rows and lineups, form and absences as one line per team,
+ * which takes a fraction of the tokens. In A/B mode each match is assigned one encoding by a hash
+ * of its ID, so repeated requests for a match get the same prompt and the two encodings can be
+ * compared through the metrics and the format reported with each commentary.
+ * When a token budget is set, whole sections are left out, lowest-value first, until the prompt
+ * fits. Several matches can also be encoded into one batch prompt that shares the instructions.
+ */
+@Component
+public class MatchPromptEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchPromptEncoder.class);
+
+    public static final String FORMAT_VERBOSE = "verbose";
+    public static final String FORMAT_COMPACT = "compact";
+    public static final String FORMAT_AB = "ab";
+
+    static final String SECTION_MATCH = "match";
+    static final String SECTION_LINEUPS = "lineups";
+    static final String SECTION_STANDINGS = "standings";
+    static final String SECTION_SPLITS = "homeAwayStandings";
+    static final String SECTION_WEATHER = "weather";
+    static final String SECTION_FORM = "recentForm";
+    static final String SECTION_HEAD_TO_HEAD = "headToHead";
+    static final String SECTION_UNAVAILABLE = "unavailablePlayers";
+
+    /**
+     * Sections that may be left out to meet the token budget, lowest-value first.
+     */
+    private static final List<String> OMIT_ORDER = List.of(
+            SECTION_SPLITS, SECTION_WEATHER, SECTION_HEAD_TO_HEAD, SECTION_FORM, SECTION_UNAVAILABLE, SECTION_LINEUPS, SECTION_STANDINGS);
+
+    private static final String PROMPT_INSTRUCTIONS = buildPromptInstructions();
+    private static final String PROMPT_CLOSING = "Respond with the JSON object described in your instructions.";
+    private static final String BATCH_CLOSING = "These are several matches, separated by ---. Respond with a JSON array as described in your instructions, one object per match.";
+
+    private final MeterRegistry meterRegistry;
+    private final String format;
+    private final double compactShare;
+    private final int tokenBudget;
+
+    @Autowired
+    public MatchPromptEncoder(MeterRegistry meterRegistry,
+                              @Value("${football.commentary.prompt.format:verbose}") String format,
+                              @Value("${football.commentary.prompt.compact-share:0.5}") double compactShare,
+                              @Value("${football.commentary.prompt.token-budget:0}") int tokenBudget) {
+        this.meterRegistry = meterRegistry;
+        this.format = format.toLowerCase(Locale.ROOT);
+        this.compactShare = compactShare;
+        this.tokenBudget = tokenBudget;
+    }
+
+    /**
+     * Encodes match data into a prompt. The instructions and output format come first and are
+     * identical for every match; the match data follows. Keeping the shared part as a stable prefix
+     * lets providers serve it from their prompt cache.
+     *
+     * @param data The match data
+     * @return Prompt for the AI model
+     */
+    public Prompt encode(MatchData data) {
+        String chosenFormat = chooseFormat(data);
+        List<String> omitted = new ArrayList<>();
+        Map<String, String> sections = sectionsWithinBudget(data, chosenFormat, omitted);
+
+        String input = String.join("\n\n", sections.values()) + "\n\n" + PROMPT_CLOSING;
+        Prompt prompt = record(new Prompt(PROMPT_INSTRUCTIONS, input, chosenFormat, omitted));
+        if (tokenBudget > 0 && prompt.getEstimatedTokens() > tokenBudget) {
+            logger.warn("Prompt for {} is {} tokens, over the budget of {} even without optional sections",
+                    data.getId(), prompt.getEstimatedTokens(), tokenBudget);
+        }
+        logger.info("Generated {} prompt for {} of ~{} tokens (omitted: {})", chosenFormat, data.getId(), prompt.getEstimatedTokens(), omitted);
+        logger.debug("Prompt input for {}: {}", data.getId(), input);
+
+        return prompt;
+    }
+
+    /**
+     * Encodes several matches into one prompt that asks for a JSON array of predictions keyed by
+     * match ID. The instructions are sent once for all matches, and each match carries the same
+     * sections it would have in its own prompt, so the token budget applies per match. The first
+     * match decides the encoding of the whole batch.
+     *
+     * @param matches The match data, at least one
+     * @return Prompt for the AI model
+     */
+    public Prompt encodeBatch(List<MatchData> matches) {
+        String chosenFormat = chooseFormat(matches.get(0));
+        List<String> omitted = new ArrayList<>();
+        List<String> fixtures = new ArrayList<>();
+        for (MatchData data : matches) {
+            List<String> omittedForMatch = new ArrayList<>();
+            fixtures.add(String.join("\n\n", sectionsWithinBudget(data, chosenFormat, omittedForMatch).values()));
+            omittedForMatch.stream().filter(section -> !omitted.contains(section)).forEach(omitted::add);
+        }
+
+        String input = String.join("\n\n---\n\n", fixtures) + "\n\n" + BATCH_CLOSING;
+        Prompt prompt = record(new Prompt(PROMPT_INSTRUCTIONS, input, chosenFormat, omitted));
+        logger.info("Generated {} batch prompt for {} matches of ~{} tokens (omitted: {})",
+                chosenFormat, matches.size(), prompt.getEstimatedTokens(), omitted);
+
+        return prompt;
+    }
+
+    /**
+     * Builds a match's sections in the given encoding, leaving out the lowest-value sections until
+     * a prompt with only this match fits the token budget.
+     *
+     * @param data The match data
+     * @param chosenFormat The encoding
+     * @param omitted Receives the names of the sections left out
+     * @return Section texts by name, in prompt order
+     */
+    private Map<String, String> sectionsWithinBudget(MatchData data, String chosenFormat, List<String> omitted) {
+        Map<String, String> sections = FORMAT_COMPACT.equals(chosenFormat) ? compactSections(data) : verboseSections(data);
+        if (tokenBudget > 0) {
+            for (String section : OMIT_ORDER) {
+                if (estimateTokens(sections) <= tokenBudget) {
+                    break;
+                }
+                if (sections.remove(section) != null) {
+                    omitted.add(section);
+                    meterRegistry.counter("football.commentary.prompt.sections.omitted", "section", section).increment();
+                }
+            }
+        }
+        return FORMAT_COMPACT.equals(chosenFormat) ? sections : groupVerboseStandings(data, sections);
+    }
+
+    /**
+     * Lists the verbose standings by team when the home and away tables were kept: each team's
+     * overall table followed by its home and away tables, in the order the prompt has always used.
+     * The home and away tables are a separate section only so the token budget can leave them out.
+     *
+     * @param data The match data
+     * @param sections The verbose sections within the budget
+     * @return The sections, with the home and away tables merged into the standings
+     */
+    private Map<String, String> groupVerboseStandings(MatchData data, Map<String, String> sections) {
+        if (!sections.containsKey(SECTION_STANDINGS) || sections.remove(SECTION_SPLITS) == null) {
+            return sections;
+        }
+        sections.put(SECTION_STANDINGS, "Standings:\n" +
+                verboseTeamStandings(data.getHomeTeam(), data.getStandings().getHome()) + "\n\n" +
+                verboseTeamStandings(data.getAwayTeam(), data.getStandings().getAway()));
+        return sections;
+    }
+
+    private static String verboseTeamStandings(String team, TeamStanding standing) {
+        return verboseStanding(team + " Standings", standing.getOverall(), true) + "\n\n" +
+                verboseStanding(team + " Home Standings", standing.getHomeForm(), false) + "\n\n" +
+                verboseStanding(team + " Away Standings", standing.getAwayForm(), false);
+    }
+
+    private Prompt record(Prompt prompt) {
+        DistributionSummary.builder("football.commentary.prompt.tokens")
+                .tag("format", prompt.getFormat())
+                .description("Estimated prompt tokens per request")
+                .register(meterRegistry)
+                .record(prompt.getEstimatedTokens());
+        return prompt;
+    }
+
+    /**
+     * Chooses the encoding for a match. In A/B mode the choice depends only on the match ID.
+     *
+     * @param data The match data
+     * @return The encoding
+     */
+    private String chooseFormat(MatchData data) {
+        if (!FORMAT_AB.equals(format)) {
+            return FORMAT_COMPACT.equals(format) ? FORMAT_COMPACT : FORMAT_VERBOSE;
+        }
+        String key = data.getId() != null ? data.getId() : data.getHomeTeam() + "-" + data.getAwayTeam();
+        return Math.floorMod(key.hashCode(), 100) < compactShare * 100 ? FORMAT_COMPACT : FORMAT_VERBOSE;
+    }
+
+    private static int estimateTokens(Map<String, String> sections) {
+        return TokenEstimator.estimate(PROMPT_INSTRUCTIONS) + sections.values().stream().mapToInt(TokenEstimator::estimate).sum()
+                + TokenEstimator.estimate(PROMPT_CLOSING);
+    }
+
+    /**
+     * Builds the prose sections: one labelled line per value.
+     *
+     * @param data The match data
+     * @return Section texts by name, in prompt order
+     */
+    private Map<String, String> verboseSections(MatchData data) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        TeamStanding homeTeamStanding = data.getStandings().getHome();
+        TeamStanding awayTeamStanding = data.getStandings().getAway();
+
+        sections.put(SECTION_MATCH, "Match Information:\n" +
+                "- ID: " + data.getId() + "\n" +
+                "- Teams: " + data.getHomeTeam() + " vs " + data.getAwayTeam());
+
+        sections.put(SECTION_LINEUPS, "Team Formations and Lineups:\n" +
+                data.getHomeTeam() + " (" + formationOf(data.getTeamLineups().getHome()) + "):\n" +
+                formatLineup(data.getTeamLineups().getHome().getPlayers()) + "\n\n" +
+                data.getAwayTeam() + " (" + formationOf(data.getTeamLineups().getAway()) + "):\n" +
+                formatLineup(data.getTeamLineups().getAway().getPlayers()));
+
+        sections.put(SECTION_STANDINGS, "Standings:\n" +
+                verboseStanding(data.getHomeTeam() + " Standings", homeTeamStanding.getOverall(), true) + "\n\n" +
+                verboseStanding(data.getAwayTeam() + " Standings", awayTeamStanding.getOverall(), true));
+
+        sections.put(SECTION_SPLITS,
+                verboseStanding(data.getHomeTeam() + " Home Standings", homeTeamStanding.getHomeForm(), false) + "\n\n" +
+                verboseStanding(data.getHomeTeam() + " Away Standings", homeTeamStanding.getAwayForm(), false) + "\n\n" +
+                verboseStanding(data.getAwayTeam() + " Home Standings", awayTeamStanding.getHomeForm(), false) + "\n\n" +
+                verboseStanding(data.getAwayTeam() + " Away Standings", awayTeamStanding.getAwayForm(), false));
+
+        sections.put(SECTION_WEATHER, "Environmental Conditions:\n" +
+                "- Temperature: " + data.getWeather().getTemperature() + "°C\n" +
+                "- Weather: " + data.getWeather().getCondition() + "\n" +
+                "- Humidity: " + data.getWeather().getHumidity() + "%\n" +
+                "- Wind Speed: " + data.getWeather().getWindSpeed() + " km/h");
+
+        sections.put(SECTION_FORM, "Team Form Analysis:\n" +
+                data.getHomeTeam() + " Recent Form:\n" +
+                formatList(data.getRecentMatches().get("home")) + "\n\n" +
+                data.getAwayTeam() + " Recent Form:\n" +
+                formatList(data.getRecentMatches().get("away")));
+
+        sections.put(SECTION_HEAD_TO_HEAD, "Head-to-Head History:\n" +
+                formatList(data.getRecentMatches().get("between")));
+
+        String homePlayerAvailabilityList = formatList(data.getUnavailablePlayers().get("home"));
+        String awayPlayerAvailabilityList = formatList(data.getUnavailablePlayers().get("away"));
+        sections.put(SECTION_UNAVAILABLE, "Squad Status:\n" +
+                data.getHomeTeam() + " Unavailable Players:\n" +
+                (homePlayerAvailabilityList.isEmpty() ? "No reported absences" : homePlayerAvailabilityList) + "\n\n" +
+                data.getAwayTeam() + " Unavailable Players:\n" +
+                (awayPlayerAvailabilityList.isEmpty() ? "No reported absences" : awayPlayerAvailabilityList));
+
+        return sections;
+    }
+
+    private static String verboseStanding(String label, TeamStandingData standing, boolean withPoints) {
+        StringBuilder text = new StringBuilder();
+        text.append(label).append(":\n");
+        text.append("- Position: ").append(standing.getPosition()).append("\n");
+        text.append("- Played: ").append(standing.getPlayed()).append("\n");
+        text.append("- Won: ").append(standing.getWon()).append("\n");
+        text.append("- Drawn: ").append(standing.getDrawn()).append("\n");
+        text.append("- Lost: ").append(standing.getLost()).append("\n");
+        text.append("- Goals For: ").append(standing.getGoalsFor()).append("\n");
+        text.append("- Goals Against: ").append(standing.getGoalsAgainst()).append("\n");
+        text.append("- Goal Difference: ").append(standing.getGoalDifference());
+        if (withPoints) {
+            text.append("\n- Points: ").append(standing.getPoints());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Builds the compact sections: CSV rows for the standings and one line per team elsewhere.
+     *
+     * @param data The match data
+     * @return Section texts by name, in prompt order
+     */
+    private Map<String, String> compactSections(MatchData data) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        TeamStanding homeTeamStanding = data.getStandings().getHome();
+        TeamStanding awayTeamStanding = data.getStandings().getAway();
+        String home = data.getHomeTeam();
+        String away = data.getAwayTeam();
+
+        sections.put(SECTION_MATCH, "Match " + data.getId() + ": " + home + " (home) vs " + away + " (away)");
+
+        sections.put(SECTION_LINEUPS, "Lineups (number name position):\n" +
+                home + " [" + formationOf(data.getTeamLineups().getHome()) + "]: " + compactLineup(data.getTeamLineups().getHome().getPlayers()) + "\n" +
+                away + " [" + formationOf(data.getTeamLineups().getAway()) + "]: " + compactLineup(data.getTeamLineups().getAway().getPlayers()));
+
+        sections.put(SECTION_STANDINGS, "Standings (team,pos,pld,w,d,l,gf,ga,gd,pts):\n" +
+                compactStanding(home, homeTeamStanding.getOverall()) + "," + homeTeamStanding.getOverall().getPoints() + "\n" +
+                compactStanding(away, awayTeamStanding.getOverall()) + "," + awayTeamStanding.getOverall().getPoints());
+
+        sections.put(SECTION_SPLITS, "Home/away tables (team,table,pos,pld,w,d,l,gf,ga,gd):\n" +
+                compactStanding(home + ",home", homeTeamStanding.getHomeForm()) + "\n" +
+                compactStanding(home + ",away", homeTeamStanding.getAwayForm()) + "\n" +
+                compactStanding(away + ",home", awayTeamStanding.getHomeForm()) + "\n" +
+                compactStanding(away + ",away", awayTeamStanding.getAwayForm()));
+
+        sections.put(SECTION_WEATHER, "Weather: " + data.getWeather().getTemperature() + "°C, " + data.getWeather().getCondition() +
+                ", humidity " + data.getWeather().getHumidity() + "%, wind " + data.getWeather().getWindSpeed() + " km/h");
+
+        sections.put(SECTION_FORM, "Recent form:\n" +
+                home + ": " + compactList(data.getRecentMatches().get("home"), "none") + "\n" +
+                away + ": " + compactList(data.getRecentMatches().get("away"), "none"));
+
+        sections.put(SECTION_HEAD_TO_HEAD, "Head-to-head: " + compactList(data.getRecentMatches().get("between"), "none"));
+
+        sections.put(SECTION_UNAVAILABLE, "Unavailable players:\n" +
+                home + ": " + compactList(data.getUnavailablePlayers().get("home"), "no reported absences") + "\n" +
+                away + ": " + compactList(data.getUnavailablePlayers().get("away"), "no reported absences"));
+
+        return sections;
+    }
+
+    private static String compactStanding(String label, TeamStandingData standing) {
+        return label + "," + standing.getPosition() + "," + standing.getPlayed() + "," + standing.getWon() + "," +
+                standing.getDrawn() + "," + standing.getLost() + "," + standing.getGoalsFor() + "," +
+                standing.getGoalsAgainst() + "," + standing.getGoalDifference();
+    }
+
+    private static String compactLineup(List<PlayerPosition> players) {
+        if (players == null || players.isEmpty()) {
+            return "not available";
+        }
+        return players.stream()
+                .map(player -> (player.getNumber() != null ? player.getNumber() : "?") + " " +
+                        (player.getName() != null ? player.getName() : "Unknown") + " " +
+                        (player.getPosition() != null ? player.getPosition() : "?"))
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String compactList(List<String> list, String whenEmpty) {
+        if (list == null || list.isEmpty()) {
+            return whenEmpty;
+        }
+        return list.stream().map(String::trim).collect(Collectors.joining("; "));
+    }
+
+    private static String formationOf(TeamFormation team) {
+        return team.getFormation() != null ? team.getFormation() : "Unknown";
+    }
+
+    /**
+     * Formats a list of strings into a single string with each item on a new line.
+     *
+     * @param list The list to format
+     * @return Formatted string
+     */
+    private static String formatList(List<String> list) {
+        if (list == null || list.isEmpty()) {
+            return "";
+        }
+
+        return String.join("\n", list);
+    }
+
+    /**
+     * Formats a list of player positions into a single string with each player on a new line.
+     *
+     * @param players The list of player positions to format
+     * @return Formatted string
+     */
+    private static String formatLineup(List<PlayerPosition> players) {
+        if (players == null || players.isEmpty()) {
+            return "No lineup available";
+        }
+
+        StringBuilder lineup = new StringBuilder();
+
+        for (PlayerPosition player : players) {
+            lineup.append(player.getNumber() != null ? player.getNumber() : "?")
+                  .append(". ")
+                  .append(player.getName() != null ? player.getName() : "Unknown")
+                  .append(" (")
+                  .append(player.getPosition() != null ? player.getPosition() : "Unknown")
+                  .append(")\n");
+        }
+
+        return lineup.toString();
+    }
+
+    /**
+     * Builds the instructions shared by every prompt.
+     *
+     * @return Prompt instructions
+     */
+    private static String buildPromptInstructions() {
+        return "You are an expert football analyst and prediction model. Based on the provided match data, generate a detailed predictive analysis.\n\n" +
+               "Simulate the match based on the data provided and generate a detailed predictive analysis.\n" +
+               "Analyze all provided data and respond with a single JSON object in exactly this format:\n" +
+               "{\n" +
+               "    \"homeTeamWinPercentage\": number,     // Probability of home team victory (0-100)\n" +
+               "    \"awayTeamWinPercentage\": number,     // Probability of away team victory (0-100)\n" +
+               "    \"drawPercentage\": number,            // Probability of a draw (0-100)\n" +
+               "    \"over2_5Percentage\": number,         // Likelihood of over 2.5 goals\n" +
+               "    \"bothTeamScorePercentage\": number,   // Probability of both teams scoring\n" +
+               "    \"halfTimeWinner\": \"home\" | \"away\" | \"draw\",  // Predicted half-time result\n" +
+               "    \"halfTimeWinnerPercentage\": number,  // Confidence in half-time prediction\n" +
+               "    \"predictedScore\": {\n" +
+               "        \"home\": number,                  // Predicted goals for home team\n" +
+               "        \"away\": number                   // Predicted goals for away team\n" +
+               "    },\n" +
+               "    \"predictionConfidence\": number,      // Overall confidence in prediction\n" +
+               "    \"briefComment\": string              // Analytical comment explaining key factors and prediction rationale\n" +
+               "}\n\n" +
+               "Critical Requirements:\n" +
+               "1. All percentages must be numbers from 0 to 100\n" +
+               "2. Win percentages (home, away, draw) must sum exactly to 100\n" +
+               "3. Brief comment should explain the prediction rationale considering team strengths and formations\n" +
+               "4. Predication confidence should reflect:\n" +
+               "   - Data completeness\n" +
+               "   - Form consistency\n" +
+               "   - Weather impact\n" +
+               "   - Squad availability\n" +
+               "   - Starting lineup quality\n" +
+               "   - Tactical matchup (formations)\n" +
+               "5. Consider:\n" +
+               "   - Team formations and player positions\n" +
+               "   - Individual player matchups\n" +
+               "   - Recent form and consistency\n" +
+               "   - Head-to-head history\n" +
+               "   - Weather conditions impact\n" +
+               "   - Available players and team strength\n" +
+               "   - Home/away advantage\n\n" +
+               "Return ONLY the JSON object without any additional text or formatting.\n\n" +
+               "When the input contains several matches, predict each of them as above and return ONLY a JSON array of these objects, " +
+               "one per match, each with an added \"matchId\" field holding the match ID given in the input.";
+    }
+}
@@ -0,0 +1,94 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.GeoLocation;
+import com.moxakk.analyzer.scraping.football.util.StadiumIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Offline gazetteer of known stadiums.
+ * The stadium index compiled at build time is memory-mapped at startup, so known stadiums are
+ * resolved from free-text venues without any network call. When the index is packaged inside a
+ * jar it is first extracted to a temporary file, since only files can be mapped.
+ */
+@Service
+public class StadiumGazetteer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StadiumGazetteer.class);
+
+    private static final String INDEX_RESOURCE = "/gazetteer/stadiums.idx";
+
+    private final boolean enabled;
+    private volatile StadiumIndex index;
+
+    public StadiumGazetteer(@Value("${football.gazetteer.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Maps the stadium index. Without an index, every venue is left to the online geocoder.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+
+        URL resource = StadiumGazetteer.class.getResource(INDEX_RESOURCE);
+        if (resource == null) {
+            logger.warn("Stadium index {} not found, venues will be geocoded online", INDEX_RESOURCE);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(toPath(resource), StandardOpenOption.READ)) {
+            index = StadiumIndex.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            logger.info("Mapped stadium index with {} stadiums and {} names", index.getStadiumCount(), index.getKeyCount());
+        } catch (Exception e) {
+            logger.error("Error mapping stadium index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finds the coordinates of a known stadium named in a venue.
+     *
+     * @param venue The venue text, e.g. "Old Trafford, Manchester"
+     * @return The stadium's coordinates, or null if no known stadium is named
+     */
+    public GeoLocation find(String venue) {
+        StadiumIndex current = index;
+        if (current == null || venue == null) {
+            return null;
+        }
+
+        int stadium = current.find(venue);
+        if (stadium < 0) {
+            return null;
+        }
+        logger.debug("Resolved venue '{}' to {}", venue, current.getName(stadium));
+        return new GeoLocation(String.valueOf(current.getLat(stadium)), String.valueOf(current.getLon(stadium)));
+    }
+
+    private static Path toPath(URL resource) throws Exception {
+        if ("file".equals(resource.getProtocol())) {
+            return Path.of(resource.toURI());
+        }
+
+        Path extracted = Files.createTempFile("stadiums", ".idx");
+        extracted.toFile().deleteOnExit();
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, extracted, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return extracted;
+    }
+}
@@ -0,0 +1,296 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.model.GeoLocation;
+import com.moxakk.analyzer.scraping.football.util.SingleFlight;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves venue names to coordinates. Known stadiums are found in the offline
+ * {@link StadiumGazetteer}; other venues go to Nominatim, with a permanent cache in front of it.
+ * Stadiums do not move, so every resolved venue is stored in the venue_geocode table and in an
+ * in-memory map that is loaded at startup; Nominatim is only called for venues seen for the first
+ * time. Those calls share one application-wide limiter that keeps them within Nominatim's usage
+ * policy of one request per second, and concurrent lookups of the same venue share one call.
+ * Venues that Nominatim does not know are remembered as well, and looked up again after a while.
+ */
+@Service
+public class VenueGeocoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueGeocoder.class);
+
+    private static final String NOMINATIM_URL = "https://nominatim.openstreetmap.org/search?format=json&limit=1&q=";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final StadiumGazetteer stadiumGazetteer;
+    private final SingleFlight<String, Optional<GeoLocation>> lookupFlight;
+    private final Map<String, Entry> memoryTier = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestNanos = new AtomicLong(System.nanoTime());
+    private final long requestIntervalNanos;
+    private final Duration maxWait;
+    private final Duration notFoundTtl;
+    private final String userAgent;
+
+    @Autowired
+    public VenueGeocoder(@Qualifier("footballRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper,
+                         JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, StadiumGazetteer stadiumGazetteer,
+                         @Value("${football.geocode.requests-per-second:1}") double requestsPerSecond,
+                         @Value("${football.geocode.max-wait:10s}") Duration maxWait,
+                         @Value("${football.geocode.not-found-ttl-hours:24}") long notFoundTtlHours,
+                         @Value("${football.geocode.user-agent:moxakk-analyzer}") String userAgent) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.stadiumGazetteer = stadiumGazetteer;
+        this.lookupFlight = new SingleFlight<>("geocode", maxWait.plusSeconds(30), meterRegistry);
+        this.requestIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.maxWait = maxWait;
+        this.notFoundTtl = Duration.ofHours(notFoundTtlHours);
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * Creates the geocode table if it does not exist, loads the known venues and registers metrics.
+     */
+    @PostConstruct
+    public void initialize() {
+        Gauge.builder("football.geocode.memory.size", memoryTier, Map::size)
+                .description("Number of venues held in memory")
+                .register(meterRegistry);
+
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS venue_geocode (" +
+                    "venue_key VARCHAR(255) PRIMARY KEY, " +
+                    "venue TEXT NOT NULL, " +
+                    "lat VARCHAR(32), " +
+                    "lon VARCHAR(32), " +
+                    "resolved_at TIMESTAMP NOT NULL)");
+
+            jdbcTemplate.query("SELECT venue_key, lat, lon, resolved_at FROM venue_geocode", rs -> {
+                memoryTier.put(rs.getString("venue_key"), new Entry(toLocation(rs.getString("lat"), rs.getString("lon")),
+                        rs.getTimestamp("resolved_at").toInstant()));
+            });
+            logger.info("Loaded {} venue geocodes", memoryTier.size());
+        } catch (Exception e) {
+            logger.error("Error initializing venue_geocode table: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the coordinates of a venue.
+     *
+     * @param venue The venue name
+     * @return The coordinates, or null if the venue is unknown or cannot be resolved now
+     */
+    public GeoLocation geocode(String venue) {
+        if (venue == null || venue.isBlank()) {
+            return null;
+        }
+
+        GeoLocation known = stadiumGazetteer.find(venue);
+        if (known != null) {
+            recordLookup("gazetteer");
+            return known;
+        }
+
+        String key = venueKey(venue);
+        Entry entry = memoryTier.get(key);
+        if (entry != null && entry.isUsable(notFoundTtl)) {
+            recordLookup(entry.location() != null ? "memory" : "not_found");
+            return entry.location();
+        }
+
+        return lookupFlight.execute(key, () -> resolve(key, venue)).orElse(null);
+    }
+
+    /**
+     * Gets the coordinates of several venues. Venues that differ only in case and spacing are
+     * looked up once, and the lookups run one after another so that any Nominatim calls among them
+     * stay within the request limit.
+     *
+     * @param venues The venue names
+     * @return The coordinates by venue name, in input order, with null for venues that cannot be resolved
+     */
+    public Map<String, GeoLocation> geocodeAll(Collection<String> venues) {
+        Map<String, GeoLocation> byKey = new HashMap<>();
+        Map<String, GeoLocation> locations = new LinkedHashMap<>();
+        for (String venue : venues) {
+            if (venue == null || venue.isBlank() || locations.containsKey(venue)) {
+                continue;
+            }
+            String key = venueKey(venue);
+            if (!byKey.containsKey(key)) {
+                byKey.put(key, geocode(venue));
+            }
+            locations.put(venue, byKey.get(key));
+        }
+        return locations;
+    }
+
+    /**
+     * Resolves a venue that is not in memory, from the table or else from Nominatim.
+     *
+     * @param key The normalized venue name
+     * @param venue The venue name
+     * @return The coordinates, or empty if the venue is unknown or cannot be resolved now
+     */
+    private Optional<GeoLocation> resolve(String key, String venue) {
+        Entry stored = load(key);
+        if (stored != null && stored.isUsable(notFoundTtl)) {
+            memoryTier.put(key, stored);
+            recordLookup(stored.location() != null ? "database" : "not_found");
+            return Optional.ofNullable(stored.location());
+        }
+
+        if (!awaitRequestSlot()) {
+            logger.warn("Not geocoding {}: Nominatim request slot not available within {}", venue, maxWait);
+            recordLookup("throttled");
+            return Optional.empty();
+        }
+
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.USER_AGENT, userAgent);
+            String response = restTemplate.exchange(NOMINATIM_URL + URLEncoder.encode(venue, StandardCharsets.UTF_8),
+                    HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+            JsonNode jsonNode = objectMapper.readTree(response);
+
+            GeoLocation location = null;
+            if (!jsonNode.isEmpty() && jsonNode.get(0).has("lat") && jsonNode.get(0).has("lon")) {
+                location = new GeoLocation(jsonNode.get(0).get("lat").asText(), jsonNode.get(0).get("lon").asText());
+            }
+
+            store(key, venue, location);
+            recordLookup(location != null ? "nominatim" : "not_found");
+            return Optional.ofNullable(location);
+        } catch (Exception e) {
+            // Failures are not stored, so the venue is tried again on the next lookup
+            logger.error("Error getting geocode data: {}", e.getMessage(), e);
+            recordLookup("error");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reserves the next Nominatim request slot and waits for it. Slots are handed out one
+     * interval apart across all threads.
+     *
+     * @return true if the slot was reached, false if it was further away than the maximum wait
+     */
+    private boolean awaitRequestSlot() {
+        long now = System.nanoTime();
+        long slot;
+        while (true) {
+            long next = nextRequestNanos.get();
+            slot = Math.max(next, now);
+            if (slot - now > maxWait.toNanos()) {
+                return false;
+            }
+            if (nextRequestNanos.compareAndSet(next, slot + requestIntervalNanos)) {
+                break;
+            }
+        }
+
+        long waitNanos = slot - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Entry load(String key) {
+        try {
+            List<Entry> rows = jdbcTemplate.query(
+                    "SELECT lat, lon, resolved_at FROM venue_geocode WHERE venue_key = ?",
+                    (rs, rowNum) -> new Entry(toLocation(rs.getString("lat"), rs.getString("lon")), rs.getTimestamp("resolved_at").toInstant()),
+                    key
+            );
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            logger.error("Error reading venue geocode: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void store(String key, String venue, GeoLocation location) {
+        Instant now = Instant.now();
+        memoryTier.put(key, new Entry(location, now));
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO venue_geocode (venue_key, venue, lat, lon, resolved_at) VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (venue_key) DO UPDATE SET lat = EXCLUDED.lat, lon = EXCLUDED.lon, resolved_at = EXCLUDED.resolved_at",
+                    key, venue, location != null ? location.getLat() : null, location != null ? location.getLon() : null, Timestamp.from(now)
+            );
+        } catch (Exception e) {
+            logger.error("Error writing venue geocode: {}", e.getMessage(), e);
+        }
+    }
+
+    private static GeoLocation toLocation(String lat, String lon) {
+        return lat != null && lon != null ? new GeoLocation(lat, lon) : null;
+    }
+
+    /**
+     * Normalizes a venue name so that differences in case and spacing share one entry.
+     *
+     * @param venue The venue name
+     * @return The cache key
+     */
+    static String venueKey(String venue) {
+        String key = venue.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key.length() > 255 ? key.substring(0, 255) : key;
+    }
+
+    private void recordLookup(String result) {
+        meterRegistry.counter("football.geocode.lookups", "result", result).increment();
+    }
+
+    /**
+     * A stored lookup result. A null location records that Nominatim did not know the venue.
+     */
+    private record Entry(GeoLocation location, Instant resolvedAt) {
+        boolean isUsable(Duration notFoundTtl) {
+            return location != null || resolvedAt.plus(notFoundTtl).isAfter(Instant.now());
+        }
+    }
+}
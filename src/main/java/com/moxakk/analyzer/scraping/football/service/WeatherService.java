@@ -1,7 +1,13 @@
 package com.moxakk.analyzer.scraping.football.service;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,25 +18,55 @@ import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.model.GeoLocation;
 import com.moxakk.analyzer.scraping.football.model.WeatherData;
+import com.moxakk.analyzer.scraping.football.util.ExpiringCache;
+import com.moxakk.analyzer.scraping.football.util.SingleFlight;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Service for fetching weather data for a venue.
+ * Current weather is cached per grid cell: coordinates are rounded to a cell of configurable size,
+ * and the weather at the cell's centre is shared by every venue in the cell for a short time.
+ * Concurrent lookups for the same cell share one OpenWeather request. For a whole matchday, the
+ * weather of many venues can be resolved at once, with one request per distinct cell.
  */
 @Service
 public class WeatherService {
 
     private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
+    private static final String DEFAULT_CONDITION = "Unknown";
 
     @Value("${openweather.api.key}")
     private String openWeatherApiKey;
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-
-    public WeatherService(@Qualifier("footballRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper) {
+    private final VenueGeocoder venueGeocoder;
+    private final MeterRegistry meterRegistry;
+    private final ExpiringCache<String, WeatherData> cellCache;
+    private final SingleFlight<String, WeatherData> cellFlight;
+    private final double cellDegrees;
+    private final Executor weatherExecutor;
+
+    public WeatherService(@Qualifier("footballRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper,
+                          VenueGeocoder venueGeocoder, MeterRegistry meterRegistry,
+                          @Qualifier("weatherExecutor") Executor weatherExecutor,
+                          @Value("${football.weather.cache.cell-degrees:0.1}") double cellDegrees,
+                          @Value("${football.weather.cache.ttl-minutes:10}") long ttlMinutes,
+                          @Value("${football.weather.cache.max-size:1000}") int maxSize) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.venueGeocoder = venueGeocoder;
+        this.meterRegistry = meterRegistry;
+        this.cellDegrees = cellDegrees;
+        this.weatherExecutor = weatherExecutor;
+        this.cellCache = new ExpiringCache<>(Duration.ofMinutes(ttlMinutes), maxSize);
+        this.cellFlight = new SingleFlight<>("weather", Duration.ofSeconds(60), meterRegistry);
+        Gauge.builder("football.weather.cache.size", cellCache, ExpiringCache::size)
+                .description("Number of grid cells with cached weather")
+                .register(meterRegistry);
     }
 
     /**
@@ -39,7 +75,17 @@ public class WeatherService {
      * @return Default weather data
      */
     public WeatherData createDefaultWeatherData() {
-        return new WeatherData(20, "Unknown", 50, 5);
+        return new WeatherData(20, DEFAULT_CONDITION, 50, 5);
+    }
+
+    /**
+     * Checks whether weather data is the default used when actual data could not be retrieved.
+     *
+     * @param weather The weather data
+     * @return true if the weather is missing or the default
+     */
+    public boolean isDefaultWeatherData(WeatherData weather) {
+        return weather == null || DEFAULT_CONDITION.equals(weather.getCondition());
     }
 
     /**
@@ -50,12 +96,12 @@ public class WeatherService {
      */
     public WeatherData getWeatherData(String venue) {
         try {
-            GeoLocation location = getGeocode(venue);
+            GeoLocation location = venueGeocoder.geocode(venue);
             if (location == null) {
                 return createDefaultWeatherData();
             }
 
-            return fetchWeather(location.getLat(), location.getLon());
+            return getCellWeather(Double.parseDouble(location.getLat()), Double.parseDouble(location.getLon()));
         } catch (Exception e) {
             logger.error("Error fetching weather data: {}", e.getMessage(), e);
             return createDefaultWeatherData();
@@ -63,31 +109,75 @@ public class WeatherService {
     }
 
     /**
-     * Gets geocode data for a venue.
+     * Gets weather data for several venues, such as all fixtures of a matchday.
+     * Duplicate venues are resolved once and geocoded in turn, within the geocoding request limit;
+     * the weather of each distinct grid cell is then fetched concurrently.
      *
-     * @param venue The venue to get geocode data for
-     * @return Geocode data for the venue
+     * @param venues The venues to get weather data for
+     * @return Weather data by venue, in input order; default weather for venues that cannot be resolved
      */
-    private GeoLocation getGeocode(String venue) {
-        try {
-            String encodedVenue = URLEncoder.encode(venue, StandardCharsets.UTF_8);
-            String geocodeUrl = "https://nominatim.openstreetmap.org/search?q=" + encodedVenue + "&format=json&limit=1";
-
-            String response = restTemplate.getForObject(geocodeUrl, String.class);
-            JsonNode jsonNode = objectMapper.readTree(response);
+    public Map<String, WeatherData> getWeatherDataForVenues(Collection<String> venues) {
+        Map<String, GeoLocation> locations = venueGeocoder.geocodeAll(venues);
 
-            if (jsonNode.isEmpty() || !jsonNode.get(0).has("lat") || !jsonNode.get(0).has("lon")) {
-                return null;
+        Map<String, CompletableFuture<WeatherData>> byCell = new HashMap<>();
+        Map<String, CompletableFuture<WeatherData>> byVenue = new LinkedHashMap<>();
+        locations.forEach((venue, location) -> {
+            if (location == null) {
+                byVenue.put(venue, CompletableFuture.completedFuture(createDefaultWeatherData()));
+                return;
             }
+            double lat = Double.parseDouble(location.getLat());
+            double lon = Double.parseDouble(location.getLon());
+            byVenue.put(venue, byCell.computeIfAbsent(cellKey(lat, lon), cell -> CompletableFuture
+                    .supplyAsync(() -> getCellWeather(lat, lon), weatherExecutor)
+                    .exceptionally(e -> {
+                        logger.error("Error fetching weather data for {}: {}", venue, e.getMessage(), e);
+                        return createDefaultWeatherData();
+                    })));
+        });
+
+        Map<String, WeatherData> weather = new LinkedHashMap<>();
+        byVenue.forEach((venue, future) -> weather.put(venue, future.join()));
+        logger.info("Resolved weather for {} venues with {} distinct locations", weather.size(), byCell.size());
+        return weather;
+    }
 
-            return new GeoLocation(
-                jsonNode.get(0).get("lat").asText(),
-                jsonNode.get(0).get("lon").asText()
-            );
-        } catch (Exception e) {
-            logger.error("Error getting geocode data: {}", e.getMessage(), e);
-            return null;
+    /**
+     * Gets the weather for the grid cell containing a location, from the cache or from OpenWeather.
+     * Failed requests are not cached.
+     *
+     * @param lat Latitude of the location
+     * @param lon Longitude of the location
+     * @return Weather data for the cell
+     */
+    private WeatherData getCellWeather(double lat, double lon) {
+        long row = (long) Math.floor(lat / cellDegrees);
+        long column = (long) Math.floor(lon / cellDegrees);
+        String cell = cellKey(lat, lon);
+
+        WeatherData cached = cellCache.get(cell);
+        if (cached != null) {
+            recordLookup("hit");
+            return cached;
         }
+
+        return cellFlight.execute(cell, () -> {
+            // A request that finished while this one was waiting to lead may have filled the cell
+            WeatherData filled = cellCache.get(cell);
+            if (filled != null) {
+                recordLookup("hit");
+                return filled;
+            }
+
+            recordLookup("miss");
+            WeatherData weather = fetchWeather((row + 0.5) * cellDegrees, (column + 0.5) * cellDegrees);
+            cellCache.put(cell, weather);
+            return weather;
+        });
+    }
+
+    private String cellKey(double lat, double lon) {
+        return (long) Math.floor(lat / cellDegrees) + ":" + (long) Math.floor(lon / cellDegrees);
     }
 
     /**
@@ -96,11 +186,12 @@ public class WeatherService {
      * @param lat Latitude of the location
      * @param lon Longitude of the location
      * @return Weather data for the location
+     * @throws IllegalStateException if the weather cannot be retrieved
      */
-    private WeatherData fetchWeather(String lat, String lon) {
+    private WeatherData fetchWeather(double lat, double lon) {
         try {
-            String url = "https://api.openweathermap.org/data/2.5/weather?lat=" + lat + "&lon=" + lon +
-                         "&appid=" + openWeatherApiKey + "&units=metric";
+            String url = "https://api.openweathermap.org/data/2.5/weather?lat=" + String.format(Locale.ROOT, "%.4f", lat) +
+                         "&lon=" + String.format(Locale.ROOT, "%.4f", lon) + "&appid=" + openWeatherApiKey + "&units=metric";
 
             String response = restTemplate.getForObject(url, String.class);
             JsonNode jsonNode = objectMapper.readTree(response);
@@ -112,29 +203,11 @@ public class WeatherService {
 
             return new WeatherData(temperature, condition, humidity, windSpeed);
         } catch (Exception e) {
-            logger.error("Error fetching weather data: {}", e.getMessage(), e);
-            return createDefaultWeatherData();
+            throw new IllegalStateException("Error fetching weather data: " + e.getMessage(), e);
         }
     }
 
-    /**
-     * Inner class to represent geocode location data.
-     */
-    private static class GeoLocation {
-        private final String lat;
-        private final String lon;
-
-        public GeoLocation(String lat, String lon) {
-            this.lat = lat;
-            this.lon = lon;
-        }
-
-        public String getLat() {
-            return lat;
-        }
-
-        public String getLon() {
-            return lon;
-        }
+    private void recordLookup(String result) {
+        meterRegistry.counter("football.weather.cache.lookups", "result", result).increment();
     }
-}
\ No newline at end of file
+}
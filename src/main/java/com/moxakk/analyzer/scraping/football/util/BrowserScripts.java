@@ -0,0 +1,62 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for extracting whole page sections with a single script execution.
+ */
+public final class BrowserScripts {
+
+    private BrowserScripts() {
+        // Utility class
+    }
+
+    /**
+     * Polls a script until it returns a non-null result, so waiting and extraction share one round trip.
+     *
+     * @param driver WebDriver instance
+     * @param script The script to execute; must return null while the page is not ready
+     * @param timeout How long to wait for a non-null result
+     * @return The script result
+     */
+    public static Object waitForScript(WebDriver driver, String script, Duration timeout) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        return wait.until(d -> ((JavascriptExecutor) d).executeScript(script));
+    }
+
+    /**
+     * Casts a script result to a JavaScript object.
+     *
+     * @param value The script result
+     * @return The result as a map
+     * @throws IllegalStateException if the result is not an object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> asMap(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalStateException("Unexpected script result: expected an object but got " + value);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Casts a script result to a JavaScript array.
+     *
+     * @param value The script result
+     * @return The result as a list
+     * @throws IllegalStateException if the result is not an array
+     */
+    public static List<Object> asList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalStateException("Unexpected script result: expected an array but got " + value);
+        }
+        return new ArrayList<>(list);
+    }
+}
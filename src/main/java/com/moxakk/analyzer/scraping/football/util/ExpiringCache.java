@@ -0,0 +1,102 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache whose entries expire after a fixed time to live, or sooner when written with a shorter one.
+ * When the cache is full, the least recently used entry is evicted.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttl How long entries stay valid after they are written
+     * @param maxSize The maximum number of entries to keep
+     */
+    public ExpiringCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a value if it is present and has not expired.
+     *
+     * @param key The key to look up
+     * @return The cached value, or null
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a value.
+     *
+     * @param key The key
+     * @param value The value to store
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Stores a value that expires sooner than the cache's time to live, e.g. because it was loaded
+     * from a slower tier where it had already aged.
+     *
+     * @param key The key
+     * @param value The value to store
+     * @param timeToLive How long the value stays valid, capped at the cache's time to live
+     */
+    public synchronized void put(K key, V value, Duration timeToLive) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + Math.min(timeToLive.toNanos(), ttlNanos)));
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key The key to remove
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Gets the number of entries, including expired entries that have not been evicted yet.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
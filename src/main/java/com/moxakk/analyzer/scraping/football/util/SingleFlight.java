@@ -0,0 +1,138 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single in-flight computation.
+ * The first caller for a key computes the value on its own thread; callers that arrive while it
+ * is running wait for and share its result. Entries older than the configured maximum age are
+ * treated as abandoned and replaced, so a hung computation cannot block a key forever.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class SingleFlight<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final String name;
+    private final Duration maxAge;
+    private final Map<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+    private final Counter abandonedCounter;
+
+    /**
+     * Creates a new single-flight group.
+     *
+     * @param name The name used to tag metrics
+     * @param maxAge How long an in-flight computation may run before it is considered abandoned
+     * @param meterRegistry The registry to publish metrics to
+     */
+    public SingleFlight(String name, Duration maxAge, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxAge = maxAge;
+        this.leaderCounter = meterRegistry.counter("football.singleflight.calls", "name", name, "role", "leader");
+        this.coalescedCounter = meterRegistry.counter("football.singleflight.calls", "name", name, "role", "coalesced");
+        this.abandonedCounter = meterRegistry.counter("football.singleflight.abandoned", "name", name);
+        Gauge.builder("football.singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .description("Number of distinct keys currently being computed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the value for a key, joining an in-flight computation for the same key if there is one.
+     *
+     * @param key The key identifying the computation
+     * @param supplier Computes the value when no computation for the key is in flight
+     * @return The computed value
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        Call<V> call;
+        while (true) {
+            // A fresh call per attempt, so a caller that took over after waiting starts its own clock
+            call = new Call<>();
+            Call<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                break;
+            }
+
+            long remainingMillis = existing.remainingMillis(maxAge);
+            try {
+                if (remainingMillis > 0) {
+                    V value = existing.future.get(remainingMillis, TimeUnit.MILLISECONDS);
+                    coalescedCounter.increment();
+                    return value;
+                }
+            } catch (TimeoutException e) {
+                // Fall through and take over the abandoned key
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for in-flight " + name + " for " + key, e);
+            } catch (ExecutionException e) {
+                coalescedCounter.increment();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+
+            if (inFlight.remove(key, existing)) {
+                abandonedCounter.increment();
+                logger.warn("Discarding abandoned in-flight {} for {} after {}", name, key, maxAge);
+            }
+        }
+
+        leaderCounter.increment();
+        purgeAbandoned(call);
+        try {
+            V value = supplier.get();
+            call.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Removes entries other than the caller's own whose computation has exceeded the maximum age.
+     * Entries are only counted when this caller is the one that removes them.
+     *
+     * @param own The caller's own call, which is never purged
+     */
+    private void purgeAbandoned(Call<V> own) {
+        for (Map.Entry<K, Call<V>> entry : inFlight.entrySet()) {
+            Call<V> call = entry.getValue();
+            if (call != own && call.remainingMillis(maxAge) <= 0 && inFlight.remove(entry.getKey(), call)) {
+                abandonedCounter.increment();
+                logger.warn("Discarding abandoned in-flight {} for {} after {}", name, entry.getKey(), maxAge);
+            }
+        }
+    }
+
+    private static final class Call<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final long startedAt = System.nanoTime();
+
+        long remainingMillis(Duration maxAge) {
+            return maxAge.toMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
+    }
+}
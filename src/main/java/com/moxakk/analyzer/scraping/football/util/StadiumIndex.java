@@ -0,0 +1,334 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact binary index of stadium names and coordinates.
+ * The index is compiled from the stadium CSV at build time and read in place from a byte buffer,
+ * typically a memory-mapped file, so the index is never copied onto the heap. Names and
+ * aliases are normalized (lowercase, no diacritics or punctuation) and stored as sorted UTF-8
+ * keys that are binary searched. Each stadium also keeps its normalized city and country, so a
+ * name found in a venue that places it somewhere else is not taken.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * int magic, int version, int stadiumCount, int keyCount
+ * stadiumCount x (float lat, float lon, int nameOffset, int nameLength, int placeOffset, int placeLength)
+ * keyCount x (int keyOffset, int keyLength, int stadium), sorted by key bytes
+ * string pool: UTF-8 names and keys, offsets relative to its start
+ * </pre>
+ */
+public final class StadiumIndex {
+
+    public static final int MAGIC = 0x5354444D;
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int STADIUM_SIZE = 24;
+    private static final int KEY_SIZE = 12;
+    private static final int MIN_PREFIX_LENGTH = 5;
+
+    private final ByteBuffer buffer;
+    private final int stadiumCount;
+    private final int keyCount;
+    private final int keysStart;
+    private final int poolStart;
+
+    private StadiumIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a stadium index of version " + VERSION);
+        }
+        this.stadiumCount = buffer.getInt(8);
+        this.keyCount = buffer.getInt(12);
+        this.keysStart = HEADER_SIZE + stadiumCount * STADIUM_SIZE;
+        this.poolStart = keysStart + keyCount * KEY_SIZE;
+    }
+
+    /**
+     * Reads an index from a buffer without copying it.
+     *
+     * @param buffer The index bytes
+     * @return The index
+     * @throws IllegalArgumentException if the buffer does not hold an index of this version
+     */
+    public static StadiumIndex read(ByteBuffer buffer) {
+        return new StadiumIndex(buffer);
+    }
+
+    public int getStadiumCount() {
+        return stadiumCount;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Finds the stadium named in a free-text venue such as "Old Trafford, Manchester".
+     * The venue is normalized and the longest known name that starts at a word of the venue is
+     * taken, preferring names that start earlier, so a known name followed by its city is found.
+     * Every other word of the venue must belong to the stadium's city or country, so a generic
+     * name such as "Stadio Olimpico" inside "Stadio Olimpico Grande Torino, Turin", or a shared
+     * name such as "St James Park" followed by another city, is not taken. Failing that, the venue is treated as a possibly truncated name, such as
+     * "Santiago Bern", and looked up as a prefix of the sorted keys; the prefix must be at least
+     * {@value #MIN_PREFIX_LENGTH} characters and all keys it starts must name the same stadium.
+     *
+     * @param venue The venue text
+     * @return The stadium's index, or -1 if no known name occurs in the venue
+     */
+    public int find(String venue) {
+        String normalized = normalize(venue);
+        String[] words = normalized.split(" ");
+        for (int start = 0; start < words.length; start++) {
+            for (int end = words.length; end > start; end--) {
+                int stadium = findKey(String.join(" ", Arrays.asList(words).subList(start, end)).getBytes(StandardCharsets.UTF_8));
+                if (stadium >= 0 && isPlacedIn(stadium, words, start, end)) {
+                    return stadium;
+                }
+            }
+        }
+        return normalized.length() >= MIN_PREFIX_LENGTH ? findPrefix(normalized.getBytes(StandardCharsets.UTF_8)) : -1;
+    }
+
+    public float getLat(int stadium) {
+        return buffer.getFloat(HEADER_SIZE + stadium * STADIUM_SIZE);
+    }
+
+    public float getLon(int stadium) {
+        return buffer.getFloat(HEADER_SIZE + stadium * STADIUM_SIZE + 4);
+    }
+
+    public String getName(int stadium) {
+        int record = HEADER_SIZE + stadium * STADIUM_SIZE;
+        return string(buffer.getInt(record + 8), buffer.getInt(record + 12));
+    }
+
+    /**
+     * Checks that the venue words outside a matched name all belong to the stadium's city or country.
+     *
+     * @param stadium The stadium the name belongs to
+     * @param words The normalized venue words
+     * @param start The first word of the name
+     * @param end The word after the name
+     * @return true if no word places the venue elsewhere
+     */
+    private boolean isPlacedIn(int stadium, String[] words, int start, int end) {
+        if (start == 0 && end == words.length) {
+            return true;
+        }
+        int record = HEADER_SIZE + stadium * STADIUM_SIZE;
+        List<String> place = Arrays.asList(string(buffer.getInt(record + 16), buffer.getInt(record + 20)).split(" "));
+        for (int i = 0; i < words.length; i++) {
+            if ((i < start || i >= end) && !place.contains(words[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findKey(byte[] key) {
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = keysStart + mid * KEY_SIZE;
+            int comparison = compare(buffer.getInt(record), buffer.getInt(record + 4), key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(record + 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the stadium whose keys start with a prefix. Keys sharing a prefix are adjacent in the
+     * sorted key table, so the range is found by binary search.
+     *
+     * @param prefix The normalized prefix
+     * @return The stadium's index, or -1 if no key or keys of several stadiums start with the prefix
+     */
+    private int findPrefix(byte[] prefix) {
+        int low = 0;
+        int high = keyCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int record = keysStart + mid * KEY_SIZE;
+            if (compare(buffer.getInt(record), buffer.getInt(record + 4), prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        int stadium = -1;
+        for (int i = low; i < keyCount; i++) {
+            int record = keysStart + i * KEY_SIZE;
+            if (!startsWith(buffer.getInt(record), buffer.getInt(record + 4), prefix)) {
+                break;
+            }
+            int candidate = buffer.getInt(record + 8);
+            if (stadium >= 0 && candidate != stadium) {
+                return -1;
+            }
+            stadium = candidate;
+        }
+        return stadium;
+    }
+
+    private boolean startsWith(int offset, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(poolStart + offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compare(int offset, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = Byte.toUnsignedInt(buffer.get(poolStart + offset + i)) - Byte.toUnsignedInt(key[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(poolStart + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Normalizes a name for matching: lowercase, diacritics removed, and runs of anything other
+     * than letters and digits collapsed to one space.
+     *
+     * @param text The text
+     * @return The normalized text
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT).replace('\u0131', 'i'), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "")
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    /**
+     * Compiles the stadium CSV into an index. Each non-comment line holds
+     * name,aliases,city,country,lat,lon with aliases separated by '|'. A key shared by two
+     * stadiums is an error, so ambiguous aliases cannot slip into the index.
+     *
+     * @param csv The CSV file
+     * @param out Receives the index bytes
+     * @throws IOException if the CSV cannot be read
+     * @throws IllegalArgumentException if a line is malformed or a key is ambiguous
+     */
+    public static void write(Path csv, OutputStream out) throws IOException {
+        List<String[]> stadiums = new ArrayList<>();
+        Map<String, Integer> keys = new TreeMap<>(Comparator.comparing((String key) -> key.getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned));
+
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(csv, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 6) {
+                throw new IllegalArgumentException(csv + ":" + lineNumber + ": expected 6 fields, found " + fields.length);
+            }
+
+            int stadium = stadiums.size();
+            stadiums.add(fields);
+            List<String> names = new ArrayList<>();
+            names.add(fields[0]);
+            if (!fields[1].isBlank()) {
+                names.addAll(Arrays.asList(fields[1].split("\\|")));
+            }
+            for (String name : names) {
+                String key = normalize(name);
+                Integer existing = keys.putIfAbsent(key, stadium);
+                if (existing != null && existing != stadium) {
+                    throw new IllegalArgumentException(csv + ":" + lineNumber + ": '" + key + "' also names " + stadiums.get(existing)[0]);
+                }
+            }
+        }
+
+        StringPool pool = new StringPool();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(stadiums.size());
+        data.writeInt(keys.size());
+        for (String[] stadium : stadiums) {
+            data.writeFloat(Float.parseFloat(stadium[4].trim()));
+            data.writeFloat(Float.parseFloat(stadium[5].trim()));
+            pool.add(stadium[0].trim(), data);
+            pool.add(normalize(stadium[2] + " " + stadium[3]), data);
+        }
+        for (Map.Entry<String, Integer> key : keys.entrySet()) {
+            pool.add(key.getKey(), data);
+            data.writeInt(key.getValue());
+        }
+        data.write(pool.bytes());
+        data.flush();
+    }
+
+    /**
+     * Compiles the stadium CSV given as the first argument into the index file given as the second.
+     * Run by the build.
+     *
+     * @param args The CSV path and the index path
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        Path index = Path.of(args[1]);
+        Files.createDirectories(index.getParent());
+        try (OutputStream out = Files.newOutputStream(index)) {
+            write(Path.of(args[0]), out);
+        }
+    }
+
+    /**
+     * Collects the string pool while writing, recording each string's offset and length.
+     */
+    private static final class StringPool {
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+        void add(String text, DataOutputStream data) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(pool.size());
+            data.writeInt(bytes.length);
+            pool.write(bytes);
+        }
+
+        byte[] bytes() {
+            return pool.toByteArray();
+        }
+    }
+}
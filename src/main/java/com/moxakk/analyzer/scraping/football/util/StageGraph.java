@@ -0,0 +1,131 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Executes a set of named stages as a dependency graph.
+ * Each stage starts as soon as all of the stages it depends on have completed, so independent
+ * stages run concurrently and the total wall-clock time approaches that of the slowest path.
+ * Dependencies must be registered before the stages that use them, which keeps the graph acyclic.
+ */
+public class StageGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageGraph.class);
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    /**
+     * Registers a stage.
+     *
+     * @param name The unique stage name
+     * @param action The work to perform; receives the results of all completed stages
+     * @param dependsOn Names of stages that must complete before this one starts
+     * @return This graph, for chaining
+     */
+    public StageGraph addStage(String name, Function<Results, ?> action, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate stage: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Stage " + name + " depends on unknown stage " + dependency);
+            }
+        }
+        stages.put(name, new Stage(name, action, List.of(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Runs all stages on the given executor and waits for them to finish.
+     *
+     * @param executor The executor to run stages on
+     * @return The results of all stages, keyed by stage name
+     */
+    public Results execute(Executor executor) {
+        return execute(executor, (stage, result) -> {
+        });
+    }
+
+    /**
+     * Runs all stages on the given executor and waits for them to finish, reporting each stage result as it completes.
+     *
+     * @param executor The executor to run stages on
+     * @param onStageComplete Called on the stage's thread with the stage name and its non-null result
+     * @return The results of all stages, keyed by stage name
+     */
+    public Results execute(Executor executor, BiConsumer<String, Object> onStageComplete) {
+        Results results = new Results();
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+
+        for (Stage stage : stages.values()) {
+            CompletableFuture<?>[] dependencies = stage.dependsOn().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+                    .thenRunAsync(() -> runStage(stage, results, onStageComplete), executor);
+            futures.put(stage.name(), future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+
+        return results;
+    }
+
+    private void runStage(Stage stage, Results results, BiConsumer<String, Object> onStageComplete) {
+        long start = System.nanoTime();
+        Object result = stage.action().apply(results);
+        if (result != null) {
+            results.values.put(stage.name(), result);
+        }
+        logger.debug("Stage {} completed in {} ms", stage.name(), (System.nanoTime() - start) / 1_000_000);
+
+        if (result != null) {
+            try {
+                onStageComplete.accept(stage.name(), result);
+            } catch (RuntimeException e) {
+                // A failing listener must not fail the stage
+                logger.warn("Stage listener failed for {}: {}", stage.name(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private record Stage(String name, Function<Results, ?> action, List<String> dependsOn) {
+    }
+
+    /**
+     * Results of the stages that have completed so far.
+     */
+    public static final class Results {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        /**
+         * Gets the result of a completed stage.
+         *
+         * @param stage The stage name
+         * @return The stage result, or null if the stage produced none
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T get(String stage) {
+            return (T) values.get(stage);
+        }
+    }
+}
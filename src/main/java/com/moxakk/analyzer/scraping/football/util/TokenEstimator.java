@@ -0,0 +1,28 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+/**
+ * Estimates LLM token counts without a provider-specific tokenizer.
+ * English text averages about four characters per token across the providers we call, which is
+ * close enough for budgeting.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+        // Utility class
+    }
+
+    /**
+     * Estimates the number of tokens in a text.
+     *
+     * @param text The text
+     * @return The estimated token count, or 0 for null or empty text
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -1,31 +1,200 @@
 package com.moxakk.analyzer.scraping.football.util;
 
+import com.moxakk.analyzer.scraping.football.exception.ScrapingError;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Factory class for creating WebDriver instances.
- * This class provides methods to create and configure WebDriver instances for web scraping.
+ * This class keeps a bounded pool of pre-warmed headless Chrome sessions that callers
+ * borrow for a single analysis and return afterwards. Returned sessions are reset
+ * (cookies, storage and extra tabs) before they are handed out again.
  */
 @Component
 public class WebDriverFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(WebDriverFactory.class);
+    private static final String ORIGINS_SCRIPT = """
+            try {
+                return [location.href]
+                    .concat(performance.getEntriesByType('resource').map(function (e) { return e.name; }))
+                    .concat(Array.from(document.querySelectorAll('iframe[src]')).map(function (f) { return f.src; }));
+            } catch (e) { return []; }
+            """;
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36";
 
+    @Value("${football.webdriver.pool.max-size:6}")
+    private int maxPoolSize;
+
+    @Value("${football.webdriver.pool.warm-size:5}")
+    private int warmPoolSize;
+
+    @Value("${football.webdriver.pool.borrow-timeout-seconds:60}")
+    private long borrowTimeoutSeconds;
+
+    @Value("${football.webdriver.pool.max-uses:50}")
+    private int maxUsesPerDriver;
+
+    private final MeterRegistry meterRegistry;
+    private final BlockingDeque<WebDriver> idleDrivers = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, AtomicInteger> pooledDrivers = new ConcurrentHashMap<>();
+
+    private Semaphore permits;
+    private Timer waitTimer;
+    private Timer borrowTimer;
+    private volatile boolean driverBinaryResolved;
+
+    public WebDriverFactory(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Resolves the driver binary once, registers pool metrics and pre-warms the pool.
+     */
+    @PostConstruct
+    public void initialize() {
+        permits = new Semaphore(maxPoolSize, true);
+
+        Gauge.builder("webdriver.pool.size", pooledDrivers, Map::size)
+                .description("Number of browser sessions owned by the pool")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.pool.idle", idleDrivers, BlockingDeque::size)
+                .description("Number of idle browser sessions ready to be borrowed")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.pool.active", this, factory -> factory.maxPoolSize - factory.permits.availablePermits())
+                .description("Number of browser sessions currently borrowed")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.pool.pending", this, factory -> factory.permits.getQueueLength())
+                .description("Number of callers waiting for a browser session")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("webdriver.pool.wait")
+                .description("Time spent waiting for a free pool slot")
+                .register(meterRegistry);
+        borrowTimer = Timer.builder("webdriver.pool.borrow")
+                .description("Total time to obtain a browser session, including launch on a cold pool")
+                .register(meterRegistry);
+
+        try {
+            resolveDriverBinary();
+            int warmSize = Math.min(warmPoolSize, maxPoolSize);
+            for (int i = 0; i < warmSize; i++) {
+                WebDriver driver = createWebDriver();
+                pooledDrivers.put(driver, new AtomicInteger());
+                idleDrivers.offerLast(driver);
+            }
+            logger.info("WebDriver pool warmed with {} session(s), max size {}", idleDrivers.size(), maxPoolSize);
+        } catch (Exception e) {
+            // Sessions will be launched lazily on first borrow instead
+            logger.warn("Could not pre-warm WebDriver pool: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Quits every pooled session when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<WebDriver> drivers = new ArrayList<>(pooledDrivers.keySet());
+        pooledDrivers.clear();
+        idleDrivers.clear();
+        drivers.forEach(this::quitQuietly);
+        logger.info("WebDriver pool shut down, {} session(s) closed", drivers.size());
+    }
+
+    /**
+     * Borrows a browser session from the pool, launching a new one if no idle session is available
+     * and the pool has not reached its maximum size. Every borrowed session must be handed back with
+     * {@link #releaseWebDriver(WebDriver)}.
+     *
+     * @return A ready-to-use WebDriver instance
+     */
+    public WebDriver borrowWebDriver() {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new ScrapingError("Timed out waiting for a WebDriver session after " + borrowTimeoutSeconds + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScrapingError("Interrupted while waiting for a WebDriver session", e);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        try {
+            WebDriver driver = idleDrivers.pollFirst();
+            if (driver == null) {
+                driver = createWebDriver();
+                pooledDrivers.put(driver, new AtomicInteger());
+            }
+            borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed browser session to the pool. The session is reset first; sessions that
+     * fail to reset or have reached their use limit are quit and replaced lazily.
+     *
+     * @param driver The WebDriver instance obtained from {@link #borrowWebDriver()}
+     */
+    public void releaseWebDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        try {
+            AtomicInteger uses = pooledDrivers.get(driver);
+            if (uses == null) {
+                quitQuietly(driver);
+            } else if (uses.incrementAndGet() >= maxUsesPerDriver || !resetSession(driver)) {
+                pooledDrivers.remove(driver);
+                quitQuietly(driver);
+            } else {
+                idleDrivers.offerFirst(driver);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
     /**
      * Creates a new WebDriver instance with default configuration.
+     * Prefer {@link #borrowWebDriver()}; sessions created here are not managed by the pool.
      *
      * @return A configured WebDriver instance
      */
     public WebDriver createWebDriver() {
         try {
-            WebDriverManager.chromedriver().setup();
+            resolveDriverBinary();
 
             ChromeOptions options = new ChromeOptions();
             options.addArguments("--headless");
@@ -42,4 +211,115 @@ public class WebDriverFactory {
             throw new RuntimeException("Failed to create WebDriver instance", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves the chromedriver binary. WebDriverManager is only consulted once per process.
+     */
+    private void resolveDriverBinary() {
+        if (driverBinaryResolved) {
+            return;
+        }
+        synchronized (this) {
+            if (!driverBinaryResolved) {
+                WebDriverManager.chromedriver().setup();
+                driverBinaryResolved = true;
+            }
+        }
+    }
+
+    /**
+     * Clears cookies, web storage and extra tabs so the next borrower starts from a clean session.
+     * Web storage is per origin, so on Chrome the storage of every origin the session visited is
+     * cleared through DevTools: each tab's navigation history plus the origins its current page
+     * loaded resources and frames from, such as consent or CDN domains.
+     *
+     * @param driver The WebDriver instance to reset
+     * @return true if the session was reset and can be reused
+     */
+    private boolean resetSession(WebDriver driver) {
+        try {
+            Set<String> origins = new LinkedHashSet<>();
+            Set<String> handles = driver.getWindowHandles();
+            String primaryHandle = null;
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                collectOrigins(driver, origins);
+                if (primaryHandle == null) {
+                    primaryHandle = handle;
+                    continue;
+                }
+                driver.close();
+            }
+            if (primaryHandle == null) {
+                return false;
+            }
+            driver.switchTo().window(primaryHandle);
+
+            if (driver instanceof ChromiumDriver chromiumDriver) {
+                for (String origin : origins) {
+                    chromiumDriver.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+                chromiumDriver.executeCdpCommand("Network.clearBrowserCache", Map.of());
+                chromiumDriver.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+                driver.manage().deleteAllCookies();
+            }
+
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Discarding WebDriver session that failed to reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Adds the origins the current tab has visited or loaded content from.
+     *
+     * @param driver The WebDriver instance, switched to the tab
+     * @param origins Receives the http(s) origins
+     */
+    @SuppressWarnings("unchecked")
+    private void collectOrigins(WebDriver driver, Set<String> origins) {
+        List<Object> urls = new ArrayList<>();
+        if (driver instanceof ChromiumDriver chromiumDriver) {
+            Object entries = chromiumDriver.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+            if (entries instanceof List<?> list) {
+                list.forEach(entry -> urls.add(((Map<String, Object>) entry).get("url")));
+            }
+        }
+        Object loaded = ((JavascriptExecutor) driver).executeScript(ORIGINS_SCRIPT);
+        if (loaded instanceof List<?> list) {
+            urls.addAll(list);
+        }
+
+        for (Object url : urls) {
+            String origin = toOrigin(String.valueOf(url));
+            if (origin != null) {
+                origins.add(origin);
+            }
+        }
+    }
+
+    private static String toOrigin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() >= 0 ? ":" + uri.getPort() : "");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting WebDriver: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.config.AiRateLimitProperties;
+import com.moxakk.analyzer.scraping.football.model.MatchData;
+import com.moxakk.analyzer.scraping.football.model.Prompt;
+import com.moxakk.analyzer.scraping.football.model.ProviderCommentary;
+import com.moxakk.analyzer.scraping.football.provider.AiProvider;
+import com.moxakk.analyzer.scraping.football.provider.AiProviderRegistry;
+import com.moxakk.analyzer.scraping.football.provider.ApiKeyPool;
+import com.moxakk.analyzer.scraping.football.provider.Completion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that calls rejected by our own throttling, by the rate limiter or because no API key has
+ * budget left, are not counted against the provider's circuit breaker, which opens after three
+ * consecutive failures.
+ */
+class FootballCommentaryServiceTest {
+
+    private static final String PROVIDER = "Stub";
+    private static final int CALLS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fullRateLimiterQueueLeavesBreakerClosed() {
+        // One request per minute and no queue: every call after the first is rejected locally
+        AiRateLimitProperties rateLimits = new AiRateLimitProperties();
+        rateLimits.setMaxQueue(0);
+        rateLimits.setDefaults(AiRateLimitProperties.Limit.of(1, null));
+
+        FootballCommentaryService service = createService(new StubProvider(false), rateLimits);
+
+        assertEquals(ProviderCommentary.Status.SUCCESS, generate(service));
+        for (int i = 1; i < CALLS; i++) {
+            assertEquals(ProviderCommentary.Status.RATE_LIMITED, generate(service));
+        }
+        assertEquals(0, circuitState());
+    }
+
+    @Test
+    void exhaustedKeyPoolLeavesBreakerClosed() {
+        // The only key reports no remaining requests on its first call
+        AiRateLimitProperties rateLimits = new AiRateLimitProperties();
+        rateLimits.setEnabled(false);
+
+        FootballCommentaryService service = createService(new StubProvider(true), rateLimits);
+
+        assertEquals(ProviderCommentary.Status.SUCCESS, generate(service));
+        for (int i = 1; i < CALLS; i++) {
+            assertEquals(ProviderCommentary.Status.RATE_LIMITED, generate(service));
+        }
+        assertEquals(0, circuitState());
+    }
+
+    private FootballCommentaryService createService(AiProvider provider, AiRateLimitProperties rateLimits) {
+        AiProviderRegistry registry = new AiProviderRegistry(List.of(provider), meterRegistry, rateLimits, 100, 3, 0.5, 10, 30);
+
+        MatchPromptEncoder encoder = mock(MatchPromptEncoder.class);
+        when(encoder.encode(any())).thenReturn(new Prompt("Predict the match.", "Arsenal vs Chelsea"));
+
+        FootballCommentaryService service = new FootballCommentaryService(registry, meterRegistry, mock(LlmResponseCache.class),
+                encoder, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "providerTimeoutSeconds", 5L);
+        return service;
+    }
+
+    private ProviderCommentary.Status generate(FootballCommentaryService service) {
+        List<ProviderCommentary> commentary = service.generateCommentary(new MatchData());
+        assertEquals(1, commentary.size());
+        return commentary.get(0).getStatus();
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("football.ai.provider.circuit.state").tag("provider", PROVIDER).gauge().value();
+    }
+
+    /**
+     * A provider that answers every call immediately, optionally using up its only key's budget.
+     */
+    private static class StubProvider implements AiProvider {
+        private final ApiKeyPool keyPool = new ApiKeyPool(PROVIDER, List.of("key"));
+        private final boolean exhaustKey;
+
+        StubProvider(boolean exhaustKey) {
+            this.exhaustKey = exhaustKey;
+        }
+
+        @Override
+        public String getName() {
+            return PROVIDER;
+        }
+
+        @Override
+        public String getModel() {
+            return "stub-model";
+        }
+
+        @Override
+        public ApiKeyPool getKeyPool() {
+            return keyPool;
+        }
+
+        @Override
+        public Mono<Completion> complete(Prompt prompt) {
+            return keyPool.withKey(lease -> {
+                if (exhaustKey) {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set("x-ratelimit-remaining-requests", "0");
+                    headers.set("x-ratelimit-reset-requests", "60s");
+                    lease.update(headers);
+                }
+                return Mono.just(new Completion("{\"comment\": \"Even match\"}"));
+            });
+        }
+    }
+}
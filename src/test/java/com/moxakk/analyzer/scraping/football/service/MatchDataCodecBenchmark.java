@@ -0,0 +1,64 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moxakk.analyzer.scraping.football.model.MatchData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.moxakk.analyzer.scraping.football.service.MatchDataFixtures.createMatch;
+
+/**
+ * Compares the JSON and CBOR storage formats on a fully scraped match: stored size, encode time
+ * and decode time. Excluded from the regular test run; run it with {@code ./gradlew codecBenchmark}.
+ */
+@Tag("benchmark")
+class MatchDataCodecBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchDataCodecBenchmark.class);
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private final MatchDataCodec codec = new MatchDataCodec(new ObjectMapper(), new SimpleMeterRegistry(), MatchDataCodec.FORMAT_CBOR);
+
+    @Test
+    void compareFormats() throws Exception {
+        MatchData match = createMatch();
+        String json = codec.toJson(match);
+        byte[] binary = codec.toBinary(match);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            codec.fromJson(codec.toJson(match));
+            codec.fromBinary(codec.toBinary(match));
+        }
+
+        logger.info("json: {} bytes, encode {} ns, decode {} ns", json.getBytes(StandardCharsets.UTF_8).length,
+                time(() -> codec.toJson(match)), time(() -> codec.fromJson(json)));
+        logger.info("cbor: {} bytes, encode {} ns, decode {} ns", binary.length,
+                time(() -> codec.toBinary(match)), time(() -> codec.fromBinary(binary)));
+    }
+
+    /**
+     * Runs an operation repeatedly.
+     *
+     * @param operation The operation
+     * @return The mean time per run in nanoseconds
+     */
+    private long time(Operation operation) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.moxakk.analyzer.scraping.football.model.MatchData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.moxakk.analyzer.scraping.football.service.MatchDataFixtures.createMatch;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatchDataCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MatchDataCodec codec = new MatchDataCodec(objectMapper, new SimpleMeterRegistry(), MatchDataCodec.FORMAT_CBOR);
+
+    @Test
+    void roundTripsJson() throws Exception {
+        MatchData match = createMatch();
+
+        assertThat(codec.fromJson(codec.toJson(match))).usingRecursiveComparison().isEqualTo(match);
+    }
+
+    @Test
+    void roundTripsCbor() throws Exception {
+        MatchData match = createMatch();
+
+        assertThat(codec.fromBinary(codec.toBinary(match))).usingRecursiveComparison().isEqualTo(match);
+    }
+
+    @Test
+    void writesSmallerCborRecords() throws Exception {
+        MatchData match = createMatch();
+
+        assertThat(codec.toBinary(match).length).isLessThan(codec.toJson(match).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void ignoresRemovedFieldsInJson() throws Exception {
+        ObjectNode document = objectMapper.valueToTree(createMatch());
+        document.put("removedField", "written by an earlier version");
+
+        assertEquals("Arsenal-Chelsea", codec.fromJson(objectMapper.writeValueAsString(document)).getId());
+    }
+
+    @Test
+    void ignoresRemovedFieldsInCbor() throws Exception {
+        ObjectNode document = objectMapper.valueToTree(createMatch());
+        document.put("removedField", "written by an earlier version");
+        byte[] cbor = objectMapper.copyWith(new CBORFactory()).writeValueAsBytes(document);
+        byte[] record = new byte[cbor.length + 1];
+        record[0] = MatchDataCodec.BINARY_VERSION;
+        System.arraycopy(cbor, 0, record, 1, cbor.length);
+
+        assertEquals("Arsenal-Chelsea", codec.fromBinary(record).getId());
+    }
+
+    @Test
+    void rejectsUnknownVersion() throws Exception {
+        byte[] record = codec.toBinary(createMatch());
+        record[0] = MatchDataCodec.BINARY_VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.fromBinary(record));
+    }
+
+    @Test
+    void rejectsEmptyRecord() {
+        assertThrows(IllegalArgumentException.class, () -> codec.fromBinary(new byte[0]));
+    }
+}
@@ -0,0 +1,71 @@
+package com.moxakk.analyzer.scraping.football.service;
+
+import com.moxakk.analyzer.scraping.football.model.MatchData;
+import com.moxakk.analyzer.scraping.football.model.PlayerPosition;
+import com.moxakk.analyzer.scraping.football.model.StandingsResult;
+import com.moxakk.analyzer.scraping.football.model.TeamFormation;
+import com.moxakk.analyzer.scraping.football.model.TeamLineups;
+import com.moxakk.analyzer.scraping.football.model.TeamStanding;
+import com.moxakk.analyzer.scraping.football.model.TeamStandingData;
+import com.moxakk.analyzer.scraping.football.model.WeatherData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Match data shared by the codec tests and benchmark.
+ */
+final class MatchDataFixtures {
+
+    private MatchDataFixtures() {
+    }
+
+    /**
+     * Builds match data shaped like the analyzer's output.
+     *
+     * @return A fully scraped match
+     */
+    static MatchData createMatch() {
+        MatchData match = new MatchData();
+        match.setId("Arsenal-Chelsea");
+        match.setMatchInput("Arsenal-Chelsea");
+        match.setHomeTeam("Arsenal");
+        match.setAwayTeam("Chelsea");
+        match.setVenue("Emirates Stadium, London");
+        match.setWeather(new WeatherData(14.2, "Light rain", 81, 5.7));
+
+        Map<String, List<String>> unavailablePlayers = new HashMap<>();
+        unavailablePlayers.put("home", new ArrayList<>(List.of("Jurrien Timber", "Takehiro Tomiyasu", "Gabriel Jesus")));
+        unavailablePlayers.put("away", new ArrayList<>(List.of("Reece James", "Romeo Lavia")));
+        match.setUnavailablePlayers(unavailablePlayers);
+
+        Map<String, List<String>> recentMatches = new HashMap<>();
+        recentMatches.put("home", new ArrayList<>(List.of("Arsenal 2-1 Brentford", "Fulham 1-1 Arsenal", "Arsenal 3-0 Brighton", "Aston Villa 0-1 Arsenal", "Arsenal 4-1 Wolves")));
+        recentMatches.put("away", new ArrayList<>(List.of("Chelsea 1-1 Everton", "Newcastle 2-2 Chelsea", "Chelsea 3-2 Luton", "Burnley 1-4 Chelsea", "Chelsea 0-2 Brighton")));
+        recentMatches.put("between", new ArrayList<>(List.of("Chelsea 2-2 Arsenal", "Arsenal 3-1 Chelsea", "Chelsea 0-1 Arsenal", "Arsenal 5-0 Chelsea", "Chelsea 0-2 Arsenal")));
+        match.setRecentMatches(recentMatches);
+
+        match.setTeamLineups(new TeamLineups(createFormation("Arsenal", "4-3-3"), createFormation("Chelsea", "4-2-3-1")));
+        match.setStandings(new StandingsResult(
+                new TeamStanding(new TeamStandingData(2, "Arsenal", 20, 13, 4, 3, 40, 18, 22, 43),
+                        new TeamStandingData(1, "Arsenal", 10, 8, 1, 1, 24, 8, 16, 25),
+                        new TeamStandingData(4, "Arsenal", 10, 5, 3, 2, 16, 10, 6, 18)),
+                new TeamStanding(new TeamStandingData(10, "Chelsea", 20, 8, 4, 8, 34, 31, 3, 28),
+                        new TeamStandingData(7, "Chelsea", 10, 6, 2, 2, 21, 12, 9, 20),
+                        new TeamStandingData(14, "Chelsea", 10, 2, 2, 6, 13, 19, -6, 8))));
+        return match;
+    }
+
+    private static TeamFormation createFormation(String team, String formation) {
+        String[] positions = {"GK", "RB", "CB", "CB", "LB", "CM", "CM", "CM", "RW", "ST", "LW"};
+        List<PlayerPosition> players = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            players.add(new PlayerPosition(i + 1, team + " Player " + (i + 1), positions[i]));
+        }
+        // Players whose shirt number could not be read are kept without one
+        players.add(new PlayerPosition(null, "Unknown", "Unknown"));
+        return new TeamFormation(formation, players);
+    }
+}
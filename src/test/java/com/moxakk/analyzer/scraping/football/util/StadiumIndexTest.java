@@ -0,0 +1,91 @@
+package com.moxakk.analyzer.scraping.football.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StadiumIndexTest {
+
+    private static final int OLD_TRAFFORD = 0;
+    private static final int ETIHAD = 1;
+    private static final int BERNABEU = 2;
+    private static final int DRAGAO = 3;
+    private static final int LUZ = 4;
+    private static final int OLIMPICO = 5;
+    private static final int OLYMPIASTADION = 6;
+    private static final int ST_JAMES_PARK = 7;
+
+    private static StadiumIndex index;
+
+    @BeforeAll
+    static void compile(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("stadiums.csv");
+        Files.writeString(csv, String.join("\n",
+                "# name,aliases,city,country,lat,lon",
+                "Old Trafford,,Manchester,England,53.4631,-2.2913",
+                "Etihad Stadium,City of Manchester Stadium,Manchester,England,53.4831,-2.2004",
+                "Santiago Bernabéu,Estadio Santiago Bernabéu|Bernabéu,Madrid,Spain,40.4531,-3.6883",
+                "Estádio do Dragão,,Porto,Portugal,41.1618,-8.5839",
+                "Estádio da Luz,,Lisbon,Portugal,38.7527,-9.1847",
+                "Stadio Olimpico,Olimpico,Rome,Italy,41.9341,12.4547",
+                "Olympiastadion Berlin,Olympiastadion,Berlin,Germany,52.5147,13.2395",
+                "St James' Park,St James Park,Newcastle upon Tyne,England,54.9756,-1.6217"), StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StadiumIndex.write(csv, out);
+        index = StadiumIndex.read(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Test
+    void normalizesCaseAccentsAndPunctuation() {
+        assertEquals("stade velodrome", StadiumIndex.normalize("  Stade Vélodrome!"));
+        assertEquals("estadio do dragao", StadiumIndex.normalize("ESTÁDIO DO DRAGÃO"));
+        assertEquals(DRAGAO, index.find("ESTÁDIO DO DRAGÃO"));
+    }
+
+    @Test
+    void findsNamesAndAliasesFollowedByDetails() {
+        assertEquals(OLD_TRAFFORD, index.find("Old Trafford, Manchester"));
+        assertEquals(ETIHAD, index.find("City of Manchester Stadium (Manchester)"));
+        assertEquals(BERNABEU, index.find("Estadio Santiago Bernabeu - Madrid"));
+        assertEquals(53.4631f, index.getLat(OLD_TRAFFORD));
+        assertEquals("Estádio da Luz", index.getName(LUZ));
+    }
+
+    @Test
+    void findsGenericNamesInTheirOwnCity() {
+        assertEquals(OLIMPICO, index.find("Stadio Olimpico, Rome, Italy"));
+        assertEquals(OLYMPIASTADION, index.find("Olympiastadion (Berlin)"));
+        assertEquals(ST_JAMES_PARK, index.find("St James Park, Newcastle"));
+    }
+
+    @Test
+    void rejectsNamesPlacedElsewhere() {
+        assertEquals(-1, index.find("Stadio Olimpico Grande Torino, Turin"));
+        assertEquals(-1, index.find("Estadio Olímpico de la Cartuja"));
+        assertEquals(-1, index.find("Olympiastadion München"));
+        assertEquals(-1, index.find("St James Park, Exeter"));
+    }
+
+    @Test
+    void findsTruncatedNamesByPrefix() {
+        assertEquals(BERNABEU, index.find("Santiago Bern"));
+        assertEquals(ETIHAD, index.find("Etihad Stad"));
+        assertEquals(LUZ, index.find("Estadio da L"));
+    }
+
+    @Test
+    void rejectsAmbiguousShortAndUnknownPrefixes() {
+        assertEquals(-1, index.find("Estadio d"));
+        assertEquals(-1, index.find("Old"));
+        assertEquals(-1, index.find("Wembley Stadium"));
+    }
+}